@@ -0,0 +1,51 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java Flight Recorder custom events
+ *         Retrieved from
+ *         https://docs.oracle.com/en/java/javase/17/docs/api/jdk.jfr/jdk/jfr/Event.html
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         A Java Flight Recorder (JFR) event for the player completing a
+ *         level.
+ */
+@Name("nonogram.Completion")
+@Label("Puzzle Completion")
+@Category("Nonogram")
+@Description("The player completed a level")
+@StackTrace(false)
+public class CompletionEvent extends Event
+{
+	@Label("Level")
+	public String level;
+
+	@Label("Width")
+	public int width;
+
+	@Label("Height")
+	public int height;
+
+	@Label("Time")
+	@Timespan(Timespan.SECONDS)
+	public long time;
+
+	@Label("Moves")
+	@Description("The moves on the level that weren't undone")
+	public int moves;
+}
@@ -0,0 +1,320 @@
+import java.util.Arrays;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Nonogram - Solution techniques
+ *         Retrieved from
+ *         https://en.wikipedia.org/wiki/Nonogram#Solution_techniques
+ *
+ *         Reason maintenance
+ *         Retrieved from
+ *         https://en.wikipedia.org/wiki/Reason_maintenance
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Finds a box the player can work out from the clues and the marks
+ *         already on their board, one line at a time, without ever looking
+ *         at the solution. It keeps what it has worked out between hints:
+ *         a new mark is added to what it knows and only that mark's row and
+ *         column are solved again. Every box it works out remembers the line
+ *         it came from and when, so taking a mark back (or changing it) only
+ *         takes back the boxes that were worked out from it, directly or
+ *         through other worked-out boxes, and only their lines are solved
+ *         again. A box the player has marked the same way stays known even
+ *         if what it was worked out from goes away.
+ */
+public class HintEngine
+{
+	// getHint returns these when it can't point to a box
+	public static final int NO_HINT = -1;
+	public static final int CONTRADICTION = -2;
+
+	// the reason of a box the player marked
+	private static final int PLAYER = -1;
+
+	private NonogramClues clues; // HintEngine has-a set of clues
+	private int rows, columns; // HintEngine has-a board size
+	private NonogramBoard grid; // the player's board
+
+	// what is known about every box: the player's marks plus
+	// everything worked out from them
+	private NonogramBoard known;
+
+	// for each known box, the line it was worked out from (or PLAYER),
+	// and when it became known; a box worked out from a line only
+	// depends on the boxes of that line that were known before it
+	private int[] reason;
+	private int[] time;
+	private int clock;
+
+	// HintEngine has-a line solver and a line to work with
+	private NonogramLineSolver lineSolver = new NonogramLineSolver();
+	private byte[] line;
+
+	// the queue of lines that need to be solved again; rows are
+	// numbered first, then columns after them
+	private int[] queue;
+	private boolean[] queued;
+	private int queueHead, queueSize;
+
+	// boxes that were worked out, as row * columns + column, newest last;
+	// a box is only listed once, even if it's taken back and worked out
+	// again before it's handed out
+	private int[] hints;
+	private boolean[] listed;
+	private int hintCount;
+
+	// boxes being taken back
+	private int[] retracted;
+
+	// the line that couldn't be solved, or -1 if the marks fit the clues
+	private int contradictionLine = -1;
+
+	/**
+	 * Constructor
+	 *
+	 * @param clues
+	 * @param grid the player's board
+	 */
+	public HintEngine(NonogramClues clues, NonogramBoard grid)
+	{
+		this.clues = clues;
+		this.grid = grid;
+		rows = clues.getRows();
+		columns = clues.getColumns();
+
+		known = new NonogramBoard(grid);
+		reason = new int[rows * columns];
+		time = new int[rows * columns];
+		line = new byte[Math.max(rows, columns)];
+		queue = new int[rows + columns];
+		queued = new boolean[rows + columns];
+		hints = new int[rows * columns];
+		listed = new boolean[rows * columns];
+		retracted = new int[rows * columns];
+
+		// the marks already on the board came first
+		Arrays.fill(reason, PLAYER);
+		for (int i = 0; i < rows + columns; i++) enqueue(i);
+	}
+
+	/**
+	 * Tells the engine about a move on the player's board; the
+	 * board must already have the new state
+	 *
+	 * @param row
+	 * @param column
+	 * @param oldState
+	 * @param newState
+	 */
+	public void boxChanged(int row, int column, int oldState, int newState)
+	{
+		if (oldState == newState) return;
+		int box = row * columns + column;
+
+		if (oldState != NonogramBoard.EMPTY)
+		{
+			if (reason[box] == PLAYER)
+			{ // the mark was only known because the player made it
+				retract(box);
+			}
+			else addHint(box); // it was worked out, so it can be a hint again
+		}
+
+		if (newState != NonogramBoard.EMPTY)
+		{
+			int state = known.getState(row, column);
+			if (state == newState) return; // it was already worked out
+
+			if (state != NonogramBoard.EMPTY)
+			{ // the mark goes against what was worked out; take that
+				// back, and solving the lines again will find where the
+				// marks stop fitting the clues
+				retract(box);
+			}
+			known.setState(row, column, newState);
+			reason[box] = PLAYER;
+			time[box] = ++clock;
+			enqueue(row);
+			enqueue(rows + column);
+		}
+	}
+
+	/**
+	 * Finds a box that can be worked out from the player's marks
+	 *
+	 * @return row * columns + column, NO_HINT if line logic can't
+	 *         work out any more boxes, or CONTRADICTION if the
+	 *         player's marks don't fit the clues
+	 */
+	public int getHint()
+	{
+		while (true)
+		{
+			if (contradictionLine >= 0) return CONTRADICTION;
+
+			// hand out a box that was already worked out, if it's still
+			// known and the player hasn't marked it since
+			while (hintCount > 0)
+			{
+				int box = hints[hintCount - 1];
+				int row = box / columns;
+				int column = box % columns;
+				if (reason[box] != PLAYER
+						&& known.getState(row, column) != NonogramBoard.EMPTY
+						&& grid.getState(row, column) == NonogramBoard.EMPTY)
+				{
+					return box;
+				}
+				listed[box] = false;
+				hintCount--;
+			}
+
+			if (queueSize == 0) return NO_HINT; // nothing more to work out
+			solveNextLine();
+		}
+	}
+
+	/**
+	 * Get the state a box was worked out to have
+	 *
+	 * @param row
+	 * @param column
+	 * @return the state, or EMPTY if it isn't known
+	 */
+	public int getKnownState(int row, int column)
+	{
+		return known.getState(row, column);
+	}
+
+	/**
+	 * Solves the next line in the queue, remembering every box it
+	 * works out and queuing the lines that cross those boxes; if the
+	 * line can't be solved, it's remembered as the contradiction
+	 */
+	private void solveNextLine()
+	{
+		// take the next line off the queue
+		int next = queue[queueHead];
+		queueHead = (queueHead + 1) % queue.length;
+		queueSize--;
+		queued[next] = false;
+
+		boolean vertical = next >= rows;
+		int index = vertical ? next - rows : next;
+
+		int length = NonogramLineSolver.readLine(known, index, vertical, line);
+		if (!lineSolver.solve(line, length, clues.getRuns(index, vertical)))
+		{
+			contradictionLine = next;
+			return;
+		}
+
+		for (int i = 0; i < length; i++)
+		{
+			int r = vertical ? i : index;
+			int c = vertical ? index : i;
+
+			if (line[i] != NonogramBoard.EMPTY
+					&& known.getState(r, c) == NonogramBoard.EMPTY)
+			{
+				int box = r * columns + c;
+				known.setState(r, c, line[i]);
+				reason[box] = next;
+				time[box] = ++clock;
+				addHint(box);
+				enqueue(vertical ? r : rows + c);
+			}
+		}
+	}
+
+	/**
+	 * Forgets a box, and every box that was worked out from it
+	 * (directly, or through other boxes that were), queuing the
+	 * lines of every box that's forgotten
+	 *
+	 * @param box
+	 */
+	private void retract(int box)
+	{
+		int count = 0;
+		retracted[count++] = box;
+		known.setState(box / columns, box % columns, NonogramBoard.EMPTY);
+
+		while (count > 0)
+		{
+			int next = retracted[--count];
+			int row = next / columns;
+			int column = next % columns;
+			int since = time[next];
+			reason[next] = PLAYER;
+
+			// boxes worked out from the row or column after this box
+			// was known depended on it
+			for (int step = 0; step < 2; step++)
+			{
+				int lineNumber = step == 0 ? row : rows + column;
+				enqueue(lineNumber);
+				if (lineNumber == contradictionLine)
+				{ // the line may fit the clues now
+					contradictionLine = -1;
+				}
+
+				boolean vertical = lineNumber >= rows;
+				int length = vertical ? rows : columns;
+				for (int i = 0; i < length; i++)
+				{
+					int r = vertical ? i : row;
+					int c = vertical ? column : i;
+					int other = r * columns + c;
+					if (reason[other] != lineNumber || time[other] <= since)
+					{
+						continue;
+					}
+
+					int state = known.getState(r, c);
+					reason[other] = PLAYER;
+					if (grid.getState(r, c) != state)
+					{ // the player hasn't marked it this way, so forget it
+						known.setState(r, c, NonogramBoard.EMPTY);
+						retracted[count++] = other;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a box that was worked out to the hints, unless it's
+	 * already listed
+	 *
+	 * @param box
+	 */
+	private void addHint(int box)
+	{
+		if (listed[box]) return;
+		listed[box] = true;
+		hints[hintCount++] = box;
+	}
+
+	/**
+	 * Adds a line to the queue, unless it's already in it
+	 *
+	 * @param lineNumber
+	 */
+	private void enqueue(int lineNumber)
+	{
+		if (queued[lineNumber]) return;
+		queued[lineNumber] = true;
+		queue[(queueHead + queueSize) % queue.length] = lineNumber;
+		queueSize++;
+	}
+}
@@ -0,0 +1,670 @@
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java BlockingQueue
+ *         Retrieved from
+ *         https://www.baeldung.com/java-blocking-queue
+ *
+ *         Otsu's method
+ *         Retrieved from
+ *         https://en.wikipedia.org/wiki/Otsu%27s_method
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         A command line tool (no GUI) that turns a directory of pictures of
+ *         any size into levels. Each picture goes through four stages:
+ *         decoding, shrinking to the level's size (each box gets the average
+ *         color of the pixels it covers), thresholding, and an optional check
+ *         that the puzzle has exactly one solution. A box is filled if it's
+ *         darker than a threshold halfway between the whole picture's
+ *         threshold (Otsu's method) and the average brightness around the
+ *         box, so uneven lighting doesn't fill or empty whole areas. Every
+ *         stage has its own threads and hands pictures to the next stage
+ *         through a small queue, so a slow stage holds the others back
+ *         instead of pictures piling up in memory. The last stage writes the
+ *         level's image, its _solved.png preview and a level data line,
+ *         which is added to the end of the level data file in the order the
+ *         pictures finish. It has a thread per core too, since encoding the
+ *         previews is slow, so it claims a level's files by creating them
+ *         before writing, and never replaces a file that's already there.
+ *
+ *         Usage: java ImageImporter [input directory] [size]
+ *         [check uniqueness] [output directory] [level data file]
+ */
+public class ImageImporter
+{
+	// the previews are drawn with this many pixels per box,
+	// like the ones that come with the game
+	private static final int PREVIEW_SCALE = 30;
+
+	// the most guesses the uniqueness check makes before giving up
+	private static final long BRANCH_LIMIT = 1024;
+
+	// at most one box in this many is flipped to make a puzzle unique
+	private static final int FLIP_SHARE = 20;
+
+	// level names are cut down to this many characters, keeping both
+	// ends, since the end of a camera's file name tells pictures apart
+	private static final int MAX_NAME_LENGTH = 48;
+
+	// this is the color of a filled box in a level's image
+	private static final int BLACK = Color.black.getRGB();
+	private static final int WHITE = Color.white.getRGB();
+
+	/**
+	 * One picture on its way through the stages
+	 */
+	private static class Item
+	{
+		private File file; // Item has-a file
+		private String name; // Item has-a level name
+		private BufferedImage image; // the decoded picture
+		private int width, height; // the level's size
+		private int[] colors; // the average color of each box
+		private NonogramBoard solution; // Item has-a solution
+
+		// how far each box's brightness is from its threshold;
+		// the boxes closest to it are the least sure
+		private double[] margins;
+	}
+
+	// passed along after the last picture to stop the stages
+	private static final Item DONE = new Item();
+
+	/**
+	 * The work one stage does to a picture
+	 */
+	private interface Stage
+	{
+		/**
+		 * Works on a picture
+		 *
+		 * @param item
+		 * @return the picture for the next stage, or null to drop it
+		 * @throws Exception
+		 */
+		Item process(Item item) throws Exception;
+	}
+
+	private int size; // the number of boxes on the picture's longer side
+	private boolean checkUniqueness; // drop puzzles with 2+ solutions
+	private File outputDirectory; // where the level images go
+	private PrintWriter levelData; // ImageImporter has-a level data file
+
+	// the threads of every stage
+	private List<Thread> threads = new ArrayList<Thread>();
+
+	// how many pictures were imported or dropped
+	private AtomicInteger imported = new AtomicInteger();
+	private AtomicInteger dropped = new AtomicInteger();
+
+	/**
+	 * Constructor
+	 *
+	 * @param size the number of boxes on a picture's longer side
+	 * @param checkUniqueness
+	 * @param outputDirectory
+	 * @param levelData where the level data lines are written
+	 */
+	public ImageImporter(int size, boolean checkUniqueness,
+			File outputDirectory, PrintWriter levelData)
+	{
+		this.size = size;
+		this.checkUniqueness = checkUniqueness;
+		this.outputDirectory = outputDirectory;
+		this.levelData = levelData;
+	}
+
+	/**
+	 * Imports every picture in a directory
+	 *
+	 * @param inputDirectory
+	 * @throws InterruptedException
+	 */
+	public void importAll(File inputDirectory) throws InterruptedException
+	{
+		int cores = Runtime.getRuntime().availableProcessors();
+
+		// decoding waits on the disk, so it gets a thread more than
+		// the cores; the decoded queue is the smallest, since a
+		// full-size picture can take a lot of memory
+		BlockingQueue<Item> files = new ArrayBlockingQueue<Item>(64);
+		BlockingQueue<Item> decoded = new ArrayBlockingQueue<Item>(cores);
+		BlockingQueue<Item> shrunk = new ArrayBlockingQueue<Item>(64);
+		BlockingQueue<Item> checked = new ArrayBlockingQueue<Item>(64);
+		BlockingQueue<Item> written = new ArrayBlockingQueue<Item>(64);
+
+		AtomicLong[] busy = new AtomicLong[4];
+		for (int i = 0; i < busy.length; i++) busy[i] = new AtomicLong();
+
+		long start = System.nanoTime();
+		startStage("decode", cores + 1, files, decoded, busy[0], this::decode);
+		startStage("shrink", cores, decoded, shrunk, busy[1], this::shrink);
+		startStage("check", cores, shrunk, checked, busy[2], this::check);
+		startStage("write", cores, checked, written, busy[3], this::write);
+
+		// list the pictures, in name order
+		File[] list = inputDirectory.listFiles(File::isFile);
+		if (list == null) list = new File[0];
+		Arrays.sort(list);
+		for (File file : list)
+		{
+			Item item = new Item();
+			item.file = file;
+			item.name = getLevelName(file);
+			files.put(item);
+		}
+		files.put(DONE);
+
+		while (written.take() != DONE)
+		{ // wait for the last stage to finish
+		}
+		for (Thread thread : threads) thread.join();
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("Imported %d pictures (%d dropped) in %.1f s%n",
+				imported.get(), dropped.get(), seconds);
+		String[] names = { "decode", "shrink", "check", "write" };
+		for (int i = 0; i < names.length; i++)
+		{ // how much of the run each stage spent working
+			System.out.printf("%-8s busy %.1f s%n", names[i],
+					busy[i].get() / 1e9);
+		}
+	}
+
+	/**
+	 * Starts the threads of one stage; every thread takes pictures
+	 * from one queue and puts them on the next, and the last thread
+	 * to see DONE passes it on
+	 *
+	 * @param name
+	 * @param count the number of threads
+	 * @param in
+	 * @param out
+	 * @param busy adds up the time the stage spends working
+	 * @param stage
+	 */
+	private void startStage(String name, int count, BlockingQueue<Item> in,
+			BlockingQueue<Item> out, AtomicLong busy, Stage stage)
+	{
+		AtomicInteger running = new AtomicInteger(count);
+		for (int i = 0; i < count; i++)
+		{
+			Thread thread = new Thread(() -> {
+				try
+				{
+					while (true)
+					{
+						Item item = in.take();
+						if (item == DONE)
+						{ // let the stage's other threads see it too
+							in.put(DONE);
+							if (running.decrementAndGet() == 0) out.put(DONE);
+							return;
+						}
+
+						long start = System.nanoTime();
+						try
+						{
+							item = stage.process(item);
+						}
+						catch (Throwable e)
+						{ // drop the picture, but keep the stage going; any
+							// error (such as running out of stack while
+							// solving) would otherwise end the thread without
+							// passing DONE on, and the import would never end
+							report("FAILED", item.name, name + ": " + e);
+							item = null;
+						}
+						busy.addAndGet(System.nanoTime() - start);
+
+						if (item != null) out.put(item);
+						else dropped.incrementAndGet();
+					}
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}, "import-" + name + "-" + i);
+			threads.add(thread);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Decodes a picture
+	 *
+	 * @param item
+	 * @return the picture, or null if it isn't an image
+	 * @throws IOException
+	 */
+	private Item decode(Item item) throws IOException
+	{
+		item.image = ImageIO.read(item.file);
+		if (item.image == null)
+		{
+			report("SKIPPED", item.name, "not an image");
+			return null;
+		}
+		return item;
+	}
+
+	/**
+	 * Shrinks a picture to the level's size and thresholds it
+	 *
+	 * @param item
+	 * @return the picture
+	 */
+	private Item shrink(Item item)
+	{
+		BufferedImage image = item.image;
+		int imageWidth = image.getWidth();
+		int imageHeight = image.getHeight();
+
+		// the longer side gets the full size, and the
+		// shorter one keeps the picture's shape
+		int width = imageWidth >= imageHeight ? size
+				: Math.max(1, Math.round((float) size * imageWidth / imageHeight));
+		int height = imageHeight >= imageWidth ? size
+				: Math.max(1, Math.round((float) size * imageHeight / imageWidth));
+		width = Math.min(width, imageWidth);
+		height = Math.min(height, imageHeight);
+
+		// add up the color of every pixel in each box, a row at a time
+		long[] red = new long[width * height];
+		long[] green = new long[width * height];
+		long[] blue = new long[width * height];
+		int[] count = new int[width * height];
+		int[] column = new int[imageWidth];
+		for (int x = 0; x < imageWidth; x++)
+		{
+			column[x] = (int) ((long) x * width / imageWidth);
+		}
+
+		int[] pixels = new int[imageWidth];
+		for (int y = 0; y < imageHeight; y++)
+		{
+			image.getRGB(0, y, imageWidth, 1, pixels, 0, imageWidth);
+			int rowStart = (int) ((long) y * height / imageHeight) * width;
+			for (int x = 0; x < imageWidth; x++)
+			{
+				int argb = pixels[x];
+				int r = argb >> 16 & 0xFF, g = argb >> 8 & 0xFF, b = argb & 0xFF;
+				int alpha = argb >>> 24;
+				if (alpha < 255)
+				{ // see-through pixels are drawn over white
+					int white = 255 * (255 - alpha);
+					r = (r * alpha + white) / 255;
+					g = (g * alpha + white) / 255;
+					b = (b * alpha + white) / 255;
+				}
+
+				int box = rowStart + column[x];
+				red[box] += r;
+				green[box] += g;
+				blue[box] += b;
+				count[box]++;
+			}
+		}
+		item.image = null; // the full-size picture isn't needed any more
+
+		item.width = width;
+		item.height = height;
+		item.colors = new int[width * height];
+		int[] brightness = new int[width * height];
+		for (int box = 0; box < width * height; box++)
+		{
+			int r = (int) (red[box] / count[box]);
+			int g = (int) (green[box] / count[box]);
+			int b = (int) (blue[box] / count[box]);
+			item.colors[box] = new Color(r, g, b).getRGB();
+			brightness[box] = (299 * r + 587 * g + 114 * b) / 1000;
+		}
+		item.margins = new double[width * height];
+		item.solution = threshold(brightness, width, height, item.margins);
+		return item;
+	}
+
+	/**
+	 * Fills the boxes that are darker than their threshold; each box's
+	 * threshold is halfway between the whole picture's threshold and the
+	 * average brightness of the boxes around it
+	 *
+	 * @param brightness from 0 to 255 for each box
+	 * @param width
+	 * @param height
+	 * @param margins filled in with how far each box is from its threshold
+	 * @return the solution
+	 */
+	private static NonogramBoard threshold(int[] brightness, int width,
+			int height, double[] margins)
+	{
+		int global = findOtsuThreshold(brightness);
+
+		// sums of every rectangle from the top left corner, so the
+		// average of any area can be found with four lookups
+		long[] sums = new long[(width + 1) * (height + 1)];
+		for (int y = 0; y < height; y++)
+		{
+			long rowSum = 0;
+			for (int x = 0; x < width; x++)
+			{
+				rowSum += brightness[y * width + x];
+				sums[(y + 1) * (width + 1) + x + 1] = sums[y * (width + 1) + x + 1]
+						+ rowSum;
+			}
+		}
+
+		// the area around a box is an eighth of the picture in each direction
+		int radius = Math.max(1, Math.max(width, height) / 8);
+		NonogramBoard solution = new NonogramBoard(height, width);
+		for (int y = 0; y < height; y++)
+		{
+			int top = Math.max(0, y - radius);
+			int bottom = Math.min(height, y + radius + 1);
+			for (int x = 0; x < width; x++)
+			{
+				int left = Math.max(0, x - radius);
+				int right = Math.min(width, x + radius + 1);
+				long area = sums[bottom * (width + 1) + right]
+						- sums[top * (width + 1) + right]
+						- sums[bottom * (width + 1) + left]
+						+ sums[top * (width + 1) + left];
+				double local = (double) area / ((bottom - top) * (right - left));
+
+				margins[y * width + x] = Math.abs(brightness[y * width + x]
+						- (global + local) / 2);
+				if (brightness[y * width + x] < (global + local) / 2)
+				{
+					solution.setState(y, x, NonogramBoard.FILLED);
+				}
+			}
+		}
+		return solution;
+	}
+
+	/**
+	 * Finds the brightness that best splits the boxes into dark
+	 * and light ones (Otsu's method)
+	 *
+	 * @param brightness from 0 to 255 for each box
+	 * @return the threshold
+	 */
+	private static int findOtsuThreshold(int[] brightness)
+	{
+		int[] histogram = new int[256];
+		long total = 0;
+		for (int value : brightness)
+		{
+			histogram[value]++;
+			total += value;
+		}
+
+		// pick the split with the most variance between the two sides
+		long darkCount = 0, darkTotal = 0;
+		double bestVariance = -1;
+		int best = 128;
+		for (int t = 0; t < 256; t++)
+		{
+			darkCount += histogram[t];
+			darkTotal += (long) t * histogram[t];
+			long lightCount = brightness.length - darkCount;
+			if (darkCount == 0 || lightCount == 0) continue;
+
+			double darkMean = (double) darkTotal / darkCount;
+			double lightMean = (double) (total - darkTotal) / lightCount;
+			double variance = (double) darkCount * lightCount
+					* (darkMean - lightMean) * (darkMean - lightMean);
+			if (variance > bestVariance)
+			{
+				bestVariance = variance;
+				best = t + 1; // the boxes up to t are the dark ones
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Checks that the puzzle has exactly one solution, if that check
+	 * is turned on. If there are two, one of the boxes where they
+	 * differ is flipped, picking the box whose brightness was closest
+	 * to its threshold, and the puzzle is checked again; a few such
+	 * boxes are usually enough, and change the picture the least.
+	 *
+	 * @param item
+	 * @return the picture, or null if its puzzle isn't unique
+	 */
+	private Item check(Item item)
+	{
+		if (!checkUniqueness) return item;
+
+		int boxes = item.width * item.height;
+		int maxFlips = Math.max(1, boxes / FLIP_SHARE);
+		boolean[] flipped = new boolean[boxes];
+
+		for (int flips = 0; flips <= maxFlips; flips++)
+		{
+			NonogramSolver solver = new NonogramSolver(
+					new NonogramClues(item.solution));
+			solver.setBranchLimit(BRANCH_LIMIT);
+			int solutions = solver.countSolutions(2);
+
+			if (solver.gaveUp() && solutions < 2)
+			{ // it stopped guessing before it could tell
+				report("TOO HARD", item.name, item.width + "x" + item.height
+						+ " gave up after " + solver.getBranchCount()
+						+ " guesses");
+				return null;
+			}
+			if (solutions == 1)
+			{
+				if (flips > 0) report("FIXED", item.name, flips + " boxes flipped");
+				return item;
+			}
+
+			// find the least sure box where the two solutions differ
+			NonogramBoard first = solver.getSolution();
+			NonogramBoard second = solver.getSecondSolution();
+			int best = -1;
+			for (int box = 0; box < boxes; box++)
+			{
+				int row = box / item.width;
+				int column = box % item.width;
+				if (!flipped[box] && first.getState(row, column) != second
+						.getState(row, column)
+						&& (best < 0 || item.margins[box] < item.margins[best]))
+				{
+					best = box;
+				}
+			}
+			if (best < 0) break;
+
+			int row = best / item.width;
+			int column = best % item.width;
+			flipped[best] = true;
+			item.solution.setState(row, column,
+					item.solution.isFilled(row, column) ? NonogramBoard.EMPTY
+							: NonogramBoard.FILLED);
+		}
+
+		report("AMBIGUOUS", item.name, item.width + "x" + item.height
+				+ " 2+ solutions");
+		return null;
+	}
+
+	/**
+	 * Writes the level's image, its preview and its level data line;
+	 * it runs on several threads at once, so both files are reserved
+	 * by creating them before anything is written
+	 *
+	 * @param item
+	 * @return the picture
+	 * @throws IOException
+	 */
+	private Item write(Item item) throws IOException
+	{
+		File levelFile = new File(outputDirectory, item.name + ".png");
+		File previewFile = new File(outputDirectory, item.name + "_solved.png");
+
+		// never replace a level or a preview that's already there,
+		// including one another thread just reserved
+		if (!levelFile.createNewFile())
+		{
+			report("EXISTS", item.name, levelFile.getPath());
+			return null;
+		}
+		if (!previewFile.createNewFile())
+		{
+			levelFile.delete(); // give the name back
+			report("EXISTS", item.name, previewFile.getPath());
+			return null;
+		}
+
+		try
+		{
+			writeImages(item, levelFile, previewFile);
+		}
+		catch (IOException | RuntimeException e)
+		{ // don't leave reserved files behind
+			levelFile.delete();
+			previewFile.delete();
+			throw e;
+		}
+		synchronized (levelData)
+		{ // the write threads share the level data file
+			levelData.println(item.name + " - incomplete - --:--");
+		}
+
+		imported.incrementAndGet();
+		report("OK", item.name, item.width + "x" + item.height);
+		return item;
+	}
+
+	/**
+	 * Draws and writes the level's image and its preview
+	 *
+	 * @param item
+	 * @param levelFile
+	 * @param previewFile
+	 * @throws IOException
+	 */
+	private static void writeImages(Item item, File levelFile,
+			File previewFile) throws IOException
+	{
+
+		// the level's image has one black pixel per filled box
+		BufferedImage level = new BufferedImage(item.width, item.height,
+				BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < item.height; y++)
+		{
+			for (int x = 0; x < item.width; x++)
+			{
+				level.setRGB(x, y, item.solution.isFilled(y, x) ? BLACK : WHITE);
+			}
+		}
+
+		// the preview shows each box in the picture's color
+		BufferedImage preview = new BufferedImage(item.width * PREVIEW_SCALE,
+				item.height * PREVIEW_SCALE, BufferedImage.TYPE_INT_RGB);
+		int[] block = new int[PREVIEW_SCALE * PREVIEW_SCALE];
+		for (int y = 0; y < item.height; y++)
+		{
+			for (int x = 0; x < item.width; x++)
+			{
+				Arrays.fill(block, item.colors[y * item.width + x]);
+				preview.setRGB(x * PREVIEW_SCALE, y * PREVIEW_SCALE,
+						PREVIEW_SCALE, PREVIEW_SCALE, block, 0, PREVIEW_SCALE);
+			}
+		}
+
+		// write into the reserved files; ImageIO.write(..., File) would
+		// delete them first, letting another thread take the name
+		try (OutputStream out = new FileOutputStream(levelFile))
+		{
+			ImageIO.write(level, "png", out);
+		}
+		try (OutputStream out = new FileOutputStream(previewFile))
+		{
+			ImageIO.write(preview, "png", out);
+		}
+	}
+
+	/**
+	 * Makes a level name from a file name, shortening it if it has
+	 * more than MAX_NAME_LENGTH characters
+	 *
+	 * @param file
+	 * @return the name
+	 */
+	private static String getLevelName(File file)
+	{
+		String name = file.getName().replaceFirst("\\.[^.]*$", "");
+		name = name.toLowerCase().replaceAll("[^a-z0-9]+", "-");
+		if (name.length() > MAX_NAME_LENGTH)
+		{ // keep the start and the end, joined by a dash
+			int head = (MAX_NAME_LENGTH - 1) / 2;
+			int tail = MAX_NAME_LENGTH - 1 - head;
+			String shortName = (name.substring(0, head) + "-"
+					+ name.substring(name.length() - tail)).replaceAll("-+", "-");
+			report("SHORTENED", shortName, "from " + name);
+			name = shortName;
+		}
+		return name;
+	}
+
+	/**
+	 * Prints one line of the report
+	 *
+	 * @param result
+	 * @param name
+	 * @param details
+	 */
+	private static void report(String result, String name, String details)
+	{
+		System.out.printf("%-10s %-20s %s%n", result, name, details);
+	}
+
+	public static void main(String[] args)
+			throws IOException, InterruptedException
+	{
+		File inputDirectory = new File(args.length > 0 ? args[0] : "import");
+		int size = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		boolean checkUniqueness = args.length > 2
+				? Boolean.parseBoolean(args[2]) : true;
+		File outputDirectory = new File(args.length > 3 ? args[3] : "images");
+		String dataFile = args.length > 4 ? args[4] : "imported_data.txt";
+
+		try (PrintWriter levelData = new PrintWriter(
+				new FileWriter(dataFile, true)))
+		{
+			new ImageImporter(size, checkUniqueness, outputDirectory, levelData)
+					.importAll(inputDirectory);
+		}
+	}
+}
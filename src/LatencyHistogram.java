@@ -0,0 +1,184 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         HdrHistogram: A High Dynamic Range Histogram
+ *         Retrieved from
+ *         https://hdrhistogram.github.io/HdrHistogram/
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Counts how long something took, in ns, in a fixed set of buckets
+ *         so recording a time never allocates. Each power of two is split
+ *         into 32 buckets, so a percentile read back from the histogram is
+ *         within about 3% of the real time. Times can be recorded from any
+ *         thread.
+ */
+public class LatencyHistogram
+{
+	// each power of two is split into 2^SUB_BITS buckets
+	private static final int SUB_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+	// enough buckets for any positive long
+	private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+	private String name; // LatencyHistogram has-a name
+	private AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * Constructor
+	 *
+	 * @param name
+	 */
+	public LatencyHistogram(String name)
+	{
+		this.name = name;
+	}
+
+	/**
+	 * Counts one time
+	 *
+	 * @param nanos
+	 */
+	public void record(long nanos)
+	{
+		counts.incrementAndGet(getBucket(Math.max(0, nanos)));
+	}
+
+	/**
+	 * Counts the time since a start time taken from System.nanoTime
+	 *
+	 * @param startNanos
+	 */
+	public void recordSince(long startNanos)
+	{
+		record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Get the name
+	 *
+	 * @return name
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Get the number of times counted
+	 *
+	 * @return the count
+	 */
+	public long getCount()
+	{
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) total += counts.get(i);
+		return total;
+	}
+
+	/**
+	 * Get a percentile of the times counted
+	 *
+	 * @param percent from 0 to 100
+	 * @return the time in ns, or 0 if nothing was counted
+	 */
+	public long getPercentile(double percent)
+	{
+		// copy the counts first, so they add up while we read them
+		long[] snapshot = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(percent / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			seen += snapshot[i];
+			if (seen >= rank) return getBucketTop(i);
+		}
+		return getBucketTop(BUCKETS - 1);
+	}
+
+	/**
+	 * Get the longest time counted
+	 *
+	 * @return the time in ns, or 0 if nothing was counted
+	 */
+	public long getMax()
+	{
+		for (int i = BUCKETS - 1; i >= 0; i--)
+		{
+			if (counts.get(i) != 0) return getBucketTop(i);
+		}
+		return 0;
+	}
+
+	/**
+	 * Forgets every time counted
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+	}
+
+	/**
+	 * Writes a one-line summary of the times, in ms
+	 *
+	 * @return the summary
+	 */
+	@Override
+	public String toString()
+	{
+		return String.format("%-16s n=%-8d p50=%8.3f p90=%8.3f p99=%8.3f "
+				+ "p99.9=%8.3f max=%8.3f ms", name, getCount(),
+				getPercentile(50) / 1e6, getPercentile(90) / 1e6,
+				getPercentile(99) / 1e6, getPercentile(99.9) / 1e6,
+				getMax() / 1e6);
+	}
+
+	/**
+	 * Get the bucket a time goes in
+	 *
+	 * @param nanos
+	 * @return the bucket
+	 */
+	private static int getBucket(long nanos)
+	{
+		if (nanos < SUB_BUCKETS) return (int) nanos; // small times are exact
+
+		// the highest bit picks the power of two, and the
+		// next SUB_BITS bits pick the bucket within it
+		int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BITS;
+		return (shift + 1) * SUB_BUCKETS
+				+ (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * Get the largest time that goes in a bucket
+	 *
+	 * @param bucket
+	 * @return the time in ns
+	 */
+	private static long getBucketTop(int bucket)
+	{
+		if (bucket < SUB_BUCKETS) return bucket;
+		int shift = bucket / SUB_BUCKETS - 1;
+		long low = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return low + (1L << shift) - 1;
+	}
+}
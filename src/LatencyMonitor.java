@@ -0,0 +1,208 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Concurrency in Swing (The Event Dispatch Thread)
+ *         Retrieved from
+ *         https://docs.oracle.com/javase/tutorial/uiswing/concurrency/dispatch.html
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Keeps a LatencyHistogram for each part of a move, level load and
+ *         save, so we can see where the time goes on a large board. It also
+ *         watches the event dispatch thread (EDT): every so often it asks
+ *         the EDT to run a tiny task, and if the task waits longer than the
+ *         stall threshold, the EDT was busy for that long and the player
+ *         couldn't do anything. The stack of the EDT is printed the first
+ *         time each stall is seen, so we can tell what it was stuck on.
+ */
+public class LatencyMonitor
+{
+	// the whole move, from the click to the end of the listener
+	public static final LatencyHistogram MOVE = new LatencyHistogram("move");
+
+	// the parts of a move
+	public static final LatencyHistogram UPDATE_GRID = new LatencyHistogram(
+			"updateGrid");
+	public static final LatencyHistogram PROGRESS = new LatencyHistogram(
+			"getProgress");
+	public static final LatencyHistogram UPDATE_UI = new LatencyHistogram(
+			"updateUI");
+
+	// from the click to the end of the paint that shows it
+	public static final LatencyHistogram CLICK_TO_PAINT = new LatencyHistogram(
+			"click-to-paint");
+	public static final LatencyHistogram PAINT = new LatencyHistogram("paint");
+
+	// working out a hint
+	public static final LatencyHistogram HINT = new LatencyHistogram("hint");
+
+	// levels and saving
+	public static final LatencyHistogram LEVEL_BUILD = new LatencyHistogram(
+			"level build");
+	public static final LatencyHistogram LEVEL_LOAD = new LatencyHistogram(
+			"level load");
+	public static final LatencyHistogram SAVE_QUEUE = new LatencyHistogram(
+			"saveDataToFile");
+	public static final LatencyHistogram SAVE_WRITE = new LatencyHistogram(
+			"save write");
+
+	// how long the EDT took to get to the watchdog's task
+	public static final LatencyHistogram EDT_DELAY = new LatencyHistogram(
+			"EDT delay");
+
+	private static final LatencyHistogram[] ALL = { MOVE, UPDATE_GRID,
+			PROGRESS, UPDATE_UI, CLICK_TO_PAINT, PAINT, HINT, LEVEL_BUILD,
+			LEVEL_LOAD, SAVE_QUEUE, SAVE_WRITE, EDT_DELAY };
+
+	// how often the watchdog checks the EDT, in ms
+	private static final long CHECK_INTERVAL = 100;
+
+	private static volatile long stallThreshold; // in ns
+	private static volatile int stallCount;
+	private static volatile Thread watchdog;
+
+	/**
+	 * Get every histogram
+	 *
+	 * @return the histograms
+	 */
+	public static LatencyHistogram[] getHistograms()
+	{
+		return ALL.clone();
+	}
+
+	/**
+	 * Get the number of EDT stalls seen so far
+	 *
+	 * @return stallCount
+	 */
+	public static int getStallCount()
+	{
+		return stallCount;
+	}
+
+	/**
+	 * Starts watching the EDT for stalls, if it isn't being watched yet
+	 *
+	 * @param thresholdMillis how long the EDT can be busy before it's a stall
+	 */
+	public static synchronized void startStallDetector(long thresholdMillis)
+	{
+		stallThreshold = thresholdMillis * 1_000_000L;
+		if (watchdog != null) return;
+
+		watchdog = new Thread(LatencyMonitor::watchEDT, "edt-watchdog");
+		watchdog.setDaemon(true);
+		watchdog.start();
+	}
+
+	/**
+	 * Writes a summary of every histogram
+	 *
+	 * @param out
+	 */
+	public static void printSummary(PrintWriter out)
+	{
+		for (LatencyHistogram histogram : ALL)
+		{
+			if (histogram.getCount() > 0) out.println(histogram);
+		}
+		out.println("EDT stalls over " + stallThreshold / 1_000_000 + " ms: "
+				+ stallCount);
+	}
+
+	/**
+	 * Writes a summary of every histogram to the end of a file
+	 *
+	 * @param fileName
+	 */
+	public static void dump(String fileName)
+	{
+		try (PrintWriter out = new PrintWriter(new FileWriter(fileName, true)))
+		{
+			out.println("Latency report, " + LocalDateTime.now());
+			printSummary(out);
+			out.println();
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Sends the EDT a tiny task, over and over, and times how long it
+	 * waits to run; this runs on the watchdog thread
+	 */
+	private static void watchEDT()
+	{
+		Thread[] edt = new Thread[1];
+		long[] ranAt = new long[1];
+		try
+		{
+			while (true)
+			{
+				long postedAt = System.nanoTime();
+				synchronized (ranAt)
+				{
+					ranAt[0] = 0;
+				}
+				SwingUtilities.invokeLater(() -> {
+					synchronized (ranAt)
+					{
+						edt[0] = Thread.currentThread();
+						ranAt[0] = System.nanoTime();
+						ranAt.notifyAll();
+					}
+				});
+
+				synchronized (ranAt)
+				{
+					// wait for the task to run, up to the stall threshold
+					long threshold = stallThreshold;
+					long deadline = postedAt + threshold;
+					long now;
+					while (ranAt[0] == 0 && (now = System.nanoTime()) < deadline)
+					{
+						ranAt.wait(Math.max(1, (deadline - now) / 1_000_000));
+					}
+
+					if (ranAt[0] == 0)
+					{ // the EDT is stuck; show what it's doing
+						stallCount++;
+						System.err.printf("EDT stall: busy for over %d ms%n",
+								threshold / 1_000_000);
+						if (edt[0] != null)
+						{
+							for (StackTraceElement frame : edt[0].getStackTrace())
+							{
+								System.err.println("\tat " + frame);
+							}
+						}
+						while (ranAt[0] == 0) ranAt.wait();
+					}
+					EDT_DELAY.record(ranAt[0] - postedAt);
+				}
+				Thread.sleep(CHECK_INTERVAL);
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt(); // stop watching
+		}
+	}
+}
@@ -0,0 +1,275 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java Files.move with ATOMIC_MOVE
+ *         Retrieved from
+ *         https://docs.oracle.com/javase/8/docs/api/java/nio/file/Files.html#move-java.nio.file.Path-java.nio.file.Path-java.nio.file.CopyOption...-
+ *
+ *         Java FileChannel.force
+ *         Retrieved from
+ *         https://docs.oracle.com/javase/8/docs/api/java/nio/channels/FileChannel.html#force-boolean-
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Saves the level data file on a background thread. Changes to the
+ *         level data are queued, and any changes that arrive while a save is
+ *         waiting or running are merged into the next save. Every save writes
+ *         a temporary file first, forces it to the disk, and then renames it
+ *         over the level data file, so the file is never left half-written.
+ *         The folder is forced to the disk after the rename too (on systems
+ *         that allow it; Windows doesn't), so the rename isn't lost if the
+ *         computer loses power right after it. The temporary file gets the
+ *         level data file's permissions, so the rename doesn't change them.
+ */
+public class LevelDataWriter
+{
+	private Path file; // LevelDataWriter has-a file to write
+
+	// LevelDataWriter keeps its own copy of the lines; only the
+	// background thread changes it
+	private ArrayList<String> lines;
+
+	// these are the changes waiting for the next save
+	private Map<Integer, String> pendingLines = new HashMap<Integer, String>();
+	private boolean pendingReset;
+	private boolean saveScheduled;
+
+	// LevelDataWriter has-a background thread for saving
+	private ExecutorService executor;
+
+	/**
+	 * Constructor
+	 *
+	 * @param fileName
+	 * @param lines the lines currently in the file
+	 */
+	public LevelDataWriter(String fileName, List<String> lines)
+	{
+		file = Paths.get(fileName).toAbsolutePath();
+		this.lines = new ArrayList<String>(lines);
+
+		// a daemon thread won't keep the program running on exit
+		executor = Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(task, "level-data-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Queues a change to one line of the file
+	 *
+	 * @param index
+	 * @param line
+	 */
+	public synchronized void update(int index, String line)
+	{
+		pendingLines.put(index, line);
+		scheduleSave();
+	}
+
+	/**
+	 * Queues a change that marks every level in the file as
+	 * incomplete with no time; the lines are changed on the
+	 * background thread
+	 */
+	public synchronized void resetAll()
+	{
+		// any single-line changes are overwritten by the reset
+		pendingLines.clear();
+		pendingReset = true;
+		scheduleSave();
+	}
+
+	/**
+	 * Waits until every queued change has been saved
+	 */
+	public void flush()
+	{
+		try
+		{ // the thread saves in order, so once this empty task
+			// runs, every save queued before it is done
+			executor.submit(() -> {}).get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Starts a save unless one is already waiting to start
+	 */
+	private void scheduleSave()
+	{
+		if (saveScheduled) return; // the waiting save will pick this change up
+		saveScheduled = true;
+		executor.execute(this::save);
+	}
+
+	/**
+	 * Applies the queued changes and writes the file; this
+	 * runs on the background thread
+	 */
+	private void save()
+	{
+		long start = System.nanoTime();
+		SaveEvent event = new SaveEvent();
+		event.begin();
+
+		synchronized (this)
+		{ // take every change that has been queued so far
+			if (pendingReset)
+			{ // format of each line is: name - completion - mm:ss
+				for (int i = 0; i < lines.size(); i++)
+				{
+					lines.set(i, lines.get(i).split(" - ")[0]
+							+ " - incomplete - --:--");
+				}
+				pendingReset = false;
+			}
+			for (Map.Entry<Integer, String> change : pendingLines.entrySet())
+			{
+				lines.set(change.getKey(), change.getValue());
+			}
+			pendingLines.clear();
+			saveScheduled = false;
+		}
+
+		StringBuilder text = new StringBuilder();
+		for (String data : lines)
+		{ // each line of data for the file
+			text.append(data).append(System.lineSeparator());
+		}
+
+		// write to a temporary file next to the real one first; it's
+		// made like any new file (not private like Files.createTempFile
+		// makes it), then given the real file's permissions
+		Path temp = null;
+		try
+		{
+			temp = file.resolveSibling(file.getFileName() + "."
+					+ ProcessHandle.current().pid() + ".tmp");
+			Files.deleteIfExists(temp); // left behind by a crash
+			Files.createFile(temp);
+			copyPermissions(file, temp);
+
+			try (FileChannel channel = FileChannel.open(temp,
+					StandardOpenOption.WRITE))
+			{
+				ByteBuffer buffer = StandardCharsets.UTF_8
+						.encode(text.toString());
+				while (buffer.hasRemaining()) channel.write(buffer);
+
+				// make sure the data is on the disk before the rename
+				// makes it the level data
+				channel.force(true);
+			}
+
+			// then swap it in with a single rename
+			try
+			{
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException e)
+			{
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			temp = null;
+			forceDirectory(file.getParent());
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+		finally
+		{// don't leave the temporary file behind if anything failed
+			if (temp != null) try
+			{
+				Files.deleteIfExists(temp);
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+		}
+		LatencyMonitor.SAVE_WRITE.recordSince(start);
+
+		if (event.shouldCommit())
+		{
+			event.level = "";
+			event.phase = "write";
+			event.commit();
+		}
+	}
+
+	/**
+	 * Forces a folder's list of files to the disk, so a rename in it
+	 * survives losing power; some systems (such as Windows) can't open
+	 * a folder this way, and there the rename is left to the system
+	 *
+	 * @param directory
+	 */
+	private static void forceDirectory(Path directory)
+	{
+		try (FileChannel channel = FileChannel.open(directory,
+				StandardOpenOption.READ))
+		{
+			channel.force(true);
+		}
+		catch (IOException e)
+		{ // the folder can't be opened or forced on this system
+		}
+	}
+
+	/**
+	 * Gives a file the same permissions as another, if the other
+	 * file exists and the file system has POSIX permissions
+	 *
+	 * @param from
+	 * @param to
+	 * @throws IOException
+	 */
+	private static void copyPermissions(Path from, Path to) throws IOException
+	{
+		if (!Files.exists(from)) return;
+		try
+		{
+			Files.setPosixFilePermissions(to,
+					Files.getPosixFilePermissions(from));
+		}
+		catch (UnsupportedOperationException e)
+		{ // Windows keeps the permissions on the folder
+		}
+	}
+}
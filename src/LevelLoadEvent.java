@@ -0,0 +1,46 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java Flight Recorder custom events
+ *         Retrieved from
+ *         https://docs.oracle.com/en/java/javase/17/docs/api/jdk.jfr/jdk/jfr/Event.html
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         A Java Flight Recorder (JFR) event for building a NonogramLevel,
+ *         either by decoding its image or by reading it from the level pack.
+ */
+@Name("nonogram.LevelLoad")
+@Label("Level Load")
+@Category("Nonogram")
+@Description("A level was built from its image or the level pack")
+@StackTrace(false)
+public class LevelLoadEvent extends Event
+{
+	@Label("Level")
+	public String level;
+
+	@Label("Width")
+	public int width;
+
+	@Label("Height")
+	public int height;
+
+	@Label("Source")
+	@Description("image or pack")
+	public String source;
+}
@@ -0,0 +1,234 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java MappedByteBuffer
+ *         Retrieved from
+ *         https://www.baeldung.com/java-mapped-byte-buffer
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Reads levels out of a level pack file made by LevelPackCompiler.
+ *         The file is memory-mapped, and each level's solution words and
+ *         clues are read straight out of it, so opening a level doesn't need
+ *         to decode an image or work out the clues again. The pack remembers
+ *         when each level's image was last changed and how big it was; if
+ *         the image has changed since the pack was made, the pack's copy is
+ *         out of date, so the level isn't loaded from the pack and the image
+ *         is decoded instead.
+ *
+ *         File layout (all numbers are big-endian):
+ *         int magic, int version, int level count,
+ *         long offset of each level,
+ *         then for each level: short name length, name (UTF-8),
+ *         long last-modified time and long size of the level's image when
+ *         the pack was made (both -1 if it had no image),
+ *         int width, int height, the solution's row words (longs),
+ *         and for every row and then every column: short run count
+ *         followed by the runs (shorts).
+ */
+public class LevelPack
+{
+	// These identify a level pack file
+	public static final int MAGIC = 0x4E47504B; // "NGPK"
+	public static final int VERSION = 2;
+
+	// This is where the level offsets start
+	public static final int HEADER_SIZE = 12;
+
+	private MappedByteBuffer buffer; // LevelPack has-a mapped file
+	private int levelCount; // LevelPack has-a number of levels
+
+	// LevelPack keeps track of where each level is by name
+	private HashMap<String, Integer> levelIndex = new HashMap<String, Integer>();
+
+	// the levels whose images changed, so the warning is only printed
+	// once; levels can be loaded by more than one thread
+	private Set<String> staleLevels = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Constructor that maps the given pack file
+	 *
+	 * @param fileName
+	 * @throws IOException if the file can't be read or isn't a level pack
+	 */
+	public LevelPack(String fileName) throws IOException
+	{
+		try (RandomAccessFile file = new RandomAccessFile(fileName, "r");
+				FileChannel channel = file.getChannel())
+		{ // the mapping stays valid after the file is closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					channel.size());
+		}
+
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+		{
+			throw new IOException(fileName + " is not a level pack");
+		}
+		levelCount = buffer.getInt(8);
+
+		// read just the names so levels can be found later
+		for (int i = 0; i < levelCount; i++)
+		{
+			levelIndex.put(readName(getOffset(i)), i);
+		}
+	}
+
+	/**
+	 * Get the number of levels in the pack
+	 *
+	 * @return levelCount
+	 */
+	public int getLevelCount()
+	{
+		return levelCount;
+	}
+
+	/**
+	 * Returns whether the pack has a level with the given name
+	 *
+	 * @param name
+	 * @return boolean
+	 */
+	public boolean hasLevel(String name)
+	{
+		return levelIndex.containsKey(name);
+	}
+
+	/**
+	 * Builds the level with the given name from the pack
+	 *
+	 * @param name
+	 * @param id the level's ID in the level data
+	 * @return the level, or null if the pack doesn't have it or
+	 *         its image has changed since the pack was made
+	 */
+	public NonogramLevel loadLevel(String name, int id)
+	{
+		Integer index = levelIndex.get(name);
+		if (index == null) return null;
+
+		LevelLoadEvent event = new LevelLoadEvent();
+		event.begin();
+
+		// every read gets its own view, so levels can be
+		// loaded by more than one thread at a time
+		ByteBuffer view = buffer.duplicate();
+		view.position(getOffset(index));
+		view.position(view.position() + 2 + view.getShort());
+
+		long imageTime = view.getLong();
+		long imageSize = view.getLong();
+		File image = getImageFile(name);
+		if (image.lastModified() != Math.max(imageTime, 0)
+				|| (image.isFile() ? image.length() : -1) != imageSize)
+		{ // the image was changed, added or removed since the pack was made
+			if (staleLevels.add(name))
+			{
+				System.out.println("levels.pack is out of date for " + name
+						+ "; loading " + image.getPath() + " instead");
+			}
+			return null;
+		}
+
+		int width = view.getInt();
+		int height = view.getInt();
+
+		// copy the solution's words into a new board
+		NonogramBoard solution = new NonogramBoard(height, width);
+		for (int row = 0; row < height; row++)
+		{
+			for (int word = 0; word < solution.getWordsPerRow(); word++)
+			{
+				solution.setFilledWord(row, word, view.getLong());
+			}
+		}
+
+		// then read the runs of every row and column
+		int[][] rowRuns = readRuns(view, height);
+		int[][] columnRuns = readRuns(view, width);
+
+		if (event.shouldCommit())
+		{
+			event.level = name;
+			event.width = width;
+			event.height = height;
+			event.source = "pack";
+			event.commit();
+		}
+		return new NonogramLevel(name, id, solution,
+				new NonogramClues(rowRuns, columnRuns));
+	}
+
+	/**
+	 * Get the image a level is built from when there's no pack
+	 *
+	 * @param name
+	 * @return the image file
+	 */
+	public static File getImageFile(String name)
+	{
+		return new File("images", name + ".png");
+	}
+
+	/**
+	 * Get the position in the file of a level
+	 *
+	 * @param index
+	 * @return the offset
+	 */
+	private int getOffset(int index)
+	{
+		return (int) buffer.getLong(HEADER_SIZE + index * 8);
+	}
+
+	/**
+	 * Reads the name of the level at the given offset
+	 *
+	 * @param offset
+	 * @return the name
+	 */
+	private String readName(int offset)
+	{
+		byte[] bytes = new byte[buffer.getShort(offset)];
+		ByteBuffer view = buffer.duplicate();
+		view.position(offset + 2);
+		view.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the runs of a number of lines
+	 *
+	 * @param view
+	 * @param lines
+	 * @return the runs of each line
+	 */
+	private static int[][] readRuns(ByteBuffer view, int lines)
+	{
+		int[][] runs = new int[lines][];
+		for (int i = 0; i < lines; i++)
+		{
+			runs[i] = new int[view.getShort()];
+			for (int j = 0; j < runs[i].length; j++) runs[i][j] = view.getShort();
+		}
+		return runs;
+	}
+}
@@ -0,0 +1,171 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java DataOutputStream
+ *         Retrieved from
+ *         https://docs.oracle.com/javase/8/docs/api/java/io/DataOutputStream.html
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         A command line tool (no GUI) that turns every level listed in the
+ *         level data file into one level pack file, which LevelPack can open
+ *         without decoding any images. See LevelPack for the file layout.
+ *
+ *         Usage: java LevelPackCompiler [level data file] [pack file]
+ */
+public class LevelPackCompiler
+{
+	private ArrayList<NonogramLevel> levels = new ArrayList<NonogramLevel>();
+
+	/**
+	 * Adds a level to the pack
+	 *
+	 * @param level
+	 */
+	public void addLevel(NonogramLevel level)
+	{
+		levels.add(level);
+	}
+
+	/**
+	 * Adds every level listed in a level data file
+	 *
+	 * @param fileName
+	 * @throws IOException
+	 */
+	public void addLevels(String fileName) throws IOException
+	{
+		try (BufferedReader reader = new BufferedReader(
+				new FileReader(fileName)))
+		{
+			String line;
+			while ((line = reader.readLine()) != null)
+			{ // every line of the file is one level
+				if (!line.isBlank()) addLevel(new NonogramLevel(line, levels.size()));
+			}
+		}
+	}
+
+	/**
+	 * Writes every level that was added to a pack file
+	 *
+	 * @param fileName
+	 * @throws IOException
+	 */
+	public void write(String fileName) throws IOException
+	{
+		// write the levels first so we know where each one starts
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(body);
+		long[] offsets = new long[levels.size()];
+		long headerSize = LevelPack.HEADER_SIZE + 8L * levels.size();
+
+		for (int i = 0; i < levels.size(); i++)
+		{
+			offsets[i] = headerSize + out.size();
+			writeLevel(out, levels.get(i));
+		}
+		out.flush();
+
+		try (DataOutputStream file = new DataOutputStream(
+				new FileOutputStream(fileName)))
+		{
+			file.writeInt(LevelPack.MAGIC);
+			file.writeInt(LevelPack.VERSION);
+			file.writeInt(levels.size());
+			for (long offset : offsets) file.writeLong(offset);
+			body.writeTo(file);
+		}
+	}
+
+	/**
+	 * Writes one level's record
+	 *
+	 * @param out
+	 * @param level
+	 * @throws IOException
+	 */
+	public static void writeLevel(DataOutputStream out, NonogramLevel level)
+			throws IOException
+	{
+		byte[] name = level.getName().getBytes(StandardCharsets.UTF_8);
+		out.writeShort(name.length);
+		out.write(name);
+
+		// so the pack can tell if the image changes after this
+		File image = LevelPack.getImageFile(level.getName());
+		boolean hasImage = image.isFile();
+		out.writeLong(hasImage ? image.lastModified() : -1);
+		out.writeLong(hasImage ? image.length() : -1);
+
+		out.writeInt(level.getWidth());
+		out.writeInt(level.getHeight());
+
+		// the solution's words, one row after another
+		NonogramBoard solution = level.getSolution();
+		for (int row = 0; row < solution.getRows(); row++)
+		{
+			for (int word = 0; word < solution.getWordsPerRow(); word++)
+			{
+				out.writeLong(solution.getFilledWord(row, word));
+			}
+		}
+
+		// then the runs of every row and column
+		NonogramClues clues = level.getClues();
+		for (int row = 0; row < clues.getRows(); row++)
+		{
+			writeRuns(out, clues.getRowRuns(row));
+		}
+		for (int column = 0; column < clues.getColumns(); column++)
+		{
+			writeRuns(out, clues.getColumnRuns(column));
+		}
+	}
+
+	/**
+	 * Writes the runs of one line
+	 *
+	 * @param out
+	 * @param runs
+	 * @throws IOException
+	 */
+	private static void writeRuns(DataOutputStream out, int[] runs)
+			throws IOException
+	{
+		out.writeShort(runs.length);
+		for (int run : runs) out.writeShort(run);
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		String dataFile = args.length > 0 ? args[0] : "level_data.txt";
+		String packFile = args.length > 1 ? args[1] : "levels.pack";
+
+		long start = System.nanoTime();
+		LevelPackCompiler compiler = new LevelPackCompiler();
+		compiler.addLevels(dataFile);
+		compiler.write(packFile);
+
+		System.out.printf("Wrote %d levels to %s in %.1f ms%n",
+				compiler.levels.size(), packFile,
+				(System.nanoTime() - start) / 1e6);
+	}
+}
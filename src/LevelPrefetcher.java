@@ -0,0 +1,132 @@
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java Future
+ *         Retrieved from
+ *         https://www.baeldung.com/java-future
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Builds NonogramLevels, either from the level pack or from their
+ *         images. The next level can be built ahead of time on a background
+ *         thread while the current one is being played, so that it's ready
+ *         the moment the player asks for it.
+ */
+public class LevelPrefetcher
+{
+	private LevelPack levelPack; // LevelPrefetcher has-a level pack (or null)
+
+	// LevelPrefetcher has-a background thread for building levels
+	private ExecutorService executor;
+
+	// LevelPrefetcher remembers the level it's building ahead of time
+	private int prefetchedID = -1;
+	private String prefetchedData;
+	private Future<NonogramLevel> prefetched;
+
+	/**
+	 * Constructor
+	 *
+	 * @param levelPack the level pack to load from, or null
+	 */
+	public LevelPrefetcher(LevelPack levelPack)
+	{
+		this.levelPack = levelPack;
+
+		// a daemon thread won't keep the program running on exit
+		executor = Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(task, "level-prefetch");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Starts building a level on the background thread
+	 *
+	 * @param data the level's line of level data
+	 * @param id
+	 */
+	public synchronized void prefetch(String data, int id)
+	{
+		if (id == prefetchedID && data.equals(prefetchedData)) return;
+
+		// the level we were building isn't needed anymore
+		if (prefetched != null) prefetched.cancel(false);
+
+		prefetchedID = id;
+		prefetchedData = data;
+		prefetched = executor.submit(() -> buildLevel(data, id));
+	}
+
+	/**
+	 * Gets a level, using the prefetched one if it's the same
+	 * level and building it right away otherwise
+	 *
+	 * @param data the level's line of level data
+	 * @param id
+	 * @return the level
+	 */
+	public NonogramLevel getLevel(String data, int id)
+	{
+		Future<NonogramLevel> future = null;
+		synchronized (this)
+		{
+			if (id == prefetchedID && data.equals(prefetchedData))
+			{ // hand over the prefetched level, only once
+				future = prefetched;
+				prefetched = null;
+				prefetchedID = -1;
+				prefetchedData = null;
+			}
+		}
+
+		if (future != null && !future.isCancelled())
+		{
+			try
+			{ // if it's still being built, this waits for the rest
+				return future.get();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			catch (ExecutionException e)
+			{
+				e.printStackTrace(); // build it again below
+			}
+		}
+		return buildLevel(data, id);
+	}
+
+	/**
+	 * Builds a level from the level pack if it has the
+	 * level, or from the level's image if it doesn't
+	 *
+	 * @param data
+	 * @param id
+	 * @return the level
+	 */
+	public NonogramLevel buildLevel(String data, int id)
+	{
+		NonogramLevel level = null;
+		if (levelPack != null)
+		{
+			level = levelPack.loadLevel(data.split(" - ")[0], id);
+		}
+		if (level == null) level = new NonogramLevel(data, id);
+		return level;
+	}
+}
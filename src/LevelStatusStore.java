@@ -0,0 +1,525 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java MappedByteBuffer
+ *         Retrieved from
+ *         https://www.baeldung.com/java-mapped-byte-buffer
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Stores the completion status and best time of every level in a
+ *         file of fixed-size records that is memory-mapped, so reading or
+ *         changing one level only touches that level's record. Whether each
+ *         level is complete is kept in a bitmap at the front of the file, so
+ *         finding the next incomplete level, counting the levels that are
+ *         left and resetting every level work on 64 levels at a time. The
+ *         store is built from the level data file the first time, and
+ *         rebuilt if the list of levels in the level data file changes.
+ *
+ *         File layout (all numbers are big-endian):
+ *         int magic, int version, int level count, int unused,
+ *         then the completion bitmap as one long per 64 levels (bit i of
+ *         long w is set if level 64 * w + i is complete),
+ *         then one 8-byte record per level: int position of the level's
+ *         name, int best time in seconds (-1 if there is none),
+ *         then the names, each as an int length and that many bytes of
+ *         UTF-8, so a level name can be any length.
+ */
+public class LevelStatusStore
+{
+	// These identify a level status file
+	public static final int MAGIC = 0x4E475354; // "NGST"
+	public static final int VERSION = 3;
+
+	// These describe the layout of the file
+	private static final int HEADER_SIZE = 16;
+	private static final int RECORD_SIZE = 8;
+	private static final int TIME_OFFSET = 4;
+
+	private ByteBuffer buffer; // LevelStatusStore has-a mapped file
+	private int levelCount; // LevelStatusStore has-a number of levels
+	private int bitmapWords; // the number of longs in the bitmap
+
+	/**
+	 * Constructor
+	 *
+	 * @param buffer the contents of a status file
+	 * @throws IOException if it isn't a status file
+	 */
+	private LevelStatusStore(ByteBuffer buffer) throws IOException
+	{
+		this.buffer = buffer;
+
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+				|| buffer.getInt(4) != VERSION)
+		{
+			throw new IOException("Not a level status file");
+		}
+		levelCount = buffer.getInt(8);
+		bitmapWords = getBitmapWords(levelCount);
+		if (levelCount < 0 || buffer.capacity() < getRecordStart(levelCount)
+				+ (long) levelCount * RECORD_SIZE)
+		{
+			throw new IOException("Level status file is too short");
+		}
+
+		// every name has to be inside the file
+		for (int id = 0; id < levelCount; id++)
+		{
+			int position = buffer.getInt(getRecord(id));
+			if (position < 0 || position > buffer.capacity() - 4
+					|| buffer.getInt(position) < 0 || buffer.getInt(position)
+							> buffer.capacity() - 4 - position)
+			{
+				throw new IOException("Level status file is damaged");
+			}
+		}
+	}
+
+	/**
+	 * Opens the status file, building it from the lines of the
+	 * level data file if it doesn't exist yet or if it lists
+	 * different levels than the level data file does
+	 *
+	 * @param fileName
+	 * @param levelData the lines of the level data file
+	 * @return the store
+	 * @throws IOException
+	 */
+	public static LevelStatusStore open(String fileName, List<String> levelData)
+			throws IOException
+	{
+		Path file = Paths.get(fileName).toAbsolutePath();
+
+		// check the existing file with a plain copy of it, since
+		// some systems can't replace a file while it's mapped
+		LevelStatusStore store = null;
+		if (Files.isRegularFile(file))
+		{
+			try
+			{
+				store = new LevelStatusStore(
+						ByteBuffer.wrap(Files.readAllBytes(file)));
+			}
+			catch (IOException e)
+			{ // an unreadable file is simply rebuilt
+				e.printStackTrace();
+			}
+		}
+
+		if (store == null || !store.matches(levelData))
+		{
+			build(file, levelData, store);
+		}
+		return new LevelStatusStore(map(file));
+	}
+
+	/**
+	 * Makes a store that only lives in memory, from the lines of
+	 * the level data file; used when the status file can't be opened,
+	 * so the level data file is the only copy of the changes
+	 *
+	 * @param levelData the lines of the level data file
+	 * @return the store
+	 */
+	public static LevelStatusStore inMemory(List<String> levelData)
+	{
+		try
+		{
+			return new LevelStatusStore(encode(levelData, null));
+		}
+		catch (IOException e)
+		{ // encode always lays out a whole, valid file
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Get the number of levels
+	 *
+	 * @return levelCount
+	 */
+	public int getLevelCount()
+	{
+		return levelCount;
+	}
+
+	/**
+	 * Get the name of a level
+	 *
+	 * @param id
+	 * @return the name
+	 */
+	public String getName(int id)
+	{
+		int position = buffer.getInt(getRecord(id));
+		byte[] bytes = new byte[buffer.getInt(position)];
+		for (int i = 0; i < bytes.length; i++) bytes[i] = buffer.get(position + 4 + i);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns whether a level is complete
+	 *
+	 * @param id
+	 * @return boolean
+	 */
+	public boolean isComplete(int id)
+	{
+		return (getBitmapWord(id >>> 6) & (1L << id)) != 0;
+	}
+
+	/**
+	 * Get the best time of a level
+	 *
+	 * @param id
+	 * @return the time in seconds, or -1 if there is none
+	 */
+	public int getBestTime(int id)
+	{
+		return buffer.getInt(getRecord(id) + TIME_OFFSET);
+	}
+
+	/**
+	 * Marks a level as complete, keeping the time
+	 * if it's the level's best time
+	 *
+	 * @param id
+	 * @param seconds
+	 */
+	public void setComplete(int id, int seconds)
+	{
+		setBitmapWord(id >>> 6, getBitmapWord(id >>> 6) | (1L << id));
+
+		int record = getRecord(id);
+		int best = buffer.getInt(record + TIME_OFFSET);
+		if (best < 0 || seconds < best) buffer.putInt(record + TIME_OFFSET, seconds);
+	}
+
+	/**
+	 * Marks a level as incomplete
+	 *
+	 * @param id
+	 */
+	public void setIncomplete(int id)
+	{
+		setBitmapWord(id >>> 6, getBitmapWord(id >>> 6) & ~(1L << id));
+	}
+
+	/**
+	 * Marks every level as incomplete and clears every best time,
+	 * like resetting the level data file does
+	 */
+	public void resetAll()
+	{
+		for (int word = 0; word < bitmapWords; word++) setBitmapWord(word, 0L);
+		for (int id = 0; id < levelCount; id++)
+		{
+			buffer.putInt(getRecord(id) + TIME_OFFSET, -1);
+		}
+	}
+
+	/**
+	 * Finds the first incomplete level at or after the given one
+	 *
+	 * @param fromID
+	 * @return the level's id, or -1 if every level from there is complete
+	 */
+	public int nextIncomplete(int fromID)
+	{
+		if (fromID >= levelCount) return -1;
+
+		// ignore the levels before fromID in its word
+		int word = fromID >>> 6;
+		long incomplete = ~getBitmapWord(word) & (-1L << fromID);
+		while (true)
+		{
+			if (incomplete != 0)
+			{ // the lowest bit that's set is the first incomplete level
+				int id = (word << 6) + Long.numberOfTrailingZeros(incomplete);
+				return id < levelCount ? id : -1;
+			}
+			if (++word == bitmapWords) return -1;
+			incomplete = ~getBitmapWord(word);
+		}
+	}
+
+	/**
+	 * Counts the levels that aren't complete
+	 *
+	 * @return the count
+	 */
+	public int countRemaining()
+	{
+		int complete = 0;
+		for (int word = 0; word < bitmapWords; word++)
+		{
+			complete += Long.bitCount(getBitmapWord(word));
+		}
+		return levelCount - complete;
+	}
+
+	/**
+	 * Makes sure every change has been written to the disk
+	 */
+	public void force()
+	{
+		if (buffer instanceof MappedByteBuffer) ((MappedByteBuffer) buffer).force();
+	}
+
+	/**
+	 * Maps a status file into memory so it can be read and
+	 * changed in place
+	 *
+	 * @param file
+	 * @return the mapped file
+	 * @throws IOException
+	 */
+	private static MappedByteBuffer map(Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.READ, StandardOpenOption.WRITE))
+		{ // the mapping stays valid after the file is closed
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0,
+					channel.size());
+		}
+	}
+
+	/**
+	 * Get the position of a level's record in the file
+	 *
+	 * @param id
+	 * @return the position
+	 */
+	private int getRecord(int id)
+	{
+		return getRecordStart(levelCount) + id * RECORD_SIZE;
+	}
+
+	/**
+	 * Get one long of the completion bitmap
+	 *
+	 * @param word
+	 * @return the long
+	 */
+	private long getBitmapWord(int word)
+	{
+		return buffer.getLong(HEADER_SIZE + word * 8);
+	}
+
+	/**
+	 * Set one long of the completion bitmap
+	 *
+	 * @param word
+	 * @param bits
+	 */
+	private void setBitmapWord(int word, long bits)
+	{
+		buffer.putLong(HEADER_SIZE + word * 8, bits);
+	}
+
+	/**
+	 * Get the number of longs the bitmap needs for a number of levels
+	 *
+	 * @param levelCount
+	 * @return the number of longs
+	 */
+	private static int getBitmapWords(int levelCount)
+	{
+		return (levelCount + 63) >>> 6;
+	}
+
+	/**
+	 * Get the position of the first record, which comes after
+	 * the header and the bitmap
+	 *
+	 * @param levelCount
+	 * @return the position
+	 */
+	private static int getRecordStart(int levelCount)
+	{
+		return HEADER_SIZE + getBitmapWords(levelCount) * 8;
+	}
+
+	/**
+	 * Returns whether the store lists the same levels,
+	 * in the same order, as the level data file
+	 *
+	 * @param levelData
+	 * @return boolean
+	 */
+	private boolean matches(List<String> levelData)
+	{
+		if (levelData.size() != levelCount) return false;
+		for (int id = 0; id < levelCount; id++)
+		{
+			if (!getName(id).equals(getNameFromData(levelData.get(id))))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes a new status file for the levels in the level data file.
+	 * Levels that were in the old store keep their status and time;
+	 * the rest take theirs from the level data file.
+	 *
+	 * @param file
+	 * @param levelData
+	 * @param oldStore the store being replaced, or null
+	 * @throws IOException
+	 */
+	private static void build(Path file, List<String> levelData,
+			LevelStatusStore oldStore) throws IOException
+	{
+		ByteBuffer out = encode(levelData, oldStore);
+
+		// write to a temporary file, then swap it in with a single rename
+		Path temp = Files.createTempFile(file.getParent(), "level_status",
+				".tmp");
+		try
+		{
+			Files.write(temp, out.array());
+			try
+			{
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException e)
+			{
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally
+		{
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Lays out the contents of a status file for the levels in the
+	 * level data file; levels the old store knew keep their status,
+	 * the rest take theirs from the level data file.
+	 *
+	 * @param levelData
+	 * @param oldStore the store being replaced, or null
+	 * @return the contents
+	 */
+	private static ByteBuffer encode(List<String> levelData,
+			LevelStatusStore oldStore)
+	{
+		// find where each level was in the old store
+		HashMap<String, Integer> oldIDs = new HashMap<String, Integer>();
+		if (oldStore != null)
+		{
+			for (int id = 0; id < oldStore.levelCount; id++)
+			{
+				oldIDs.put(oldStore.getName(id), id);
+			}
+		}
+
+		// the names go after the records, so they're sized first
+		byte[][] names = new byte[levelData.size()][];
+		int recordStart = getRecordStart(levelData.size());
+		int nameStart = recordStart + levelData.size() * RECORD_SIZE;
+		int size = nameStart;
+		for (int id = 0; id < names.length; id++)
+		{
+			names[id] = getNameFromData(levelData.get(id))
+					.getBytes(StandardCharsets.UTF_8);
+			size += 4 + names[id].length;
+		}
+
+		ByteBuffer out = ByteBuffer.allocate(size);
+		out.putInt(0, MAGIC);
+		out.putInt(4, VERSION);
+		out.putInt(8, levelData.size());
+
+		int position = nameStart;
+		for (int id = 0; id < levelData.size(); id++)
+		{
+			String data = levelData.get(id);
+			int record = recordStart + id * RECORD_SIZE;
+			out.putInt(record, position);
+			out.putInt(position, names[id].length);
+			out.put(position + 4, names[id]);
+			position += 4 + names[id].length;
+
+			Integer oldID = oldIDs.get(getNameFromData(data));
+			boolean complete;
+			int time;
+			if (oldID != null)
+			{ // keep what the old store knew about this level
+				complete = oldStore.isComplete(oldID);
+				time = oldStore.getBestTime(oldID);
+			}
+			else
+			{ // format of the string is: name - completion - mm:ss
+				String[] parts = data.split(" - ");
+				complete = parts.length > 1 && parts[1].equals("complete");
+				time = parts.length > 2 ? parseTime(parts[2]) : -1;
+			}
+			if (complete)
+			{ // set the level's bit in the bitmap
+				int word = HEADER_SIZE + (id >>> 6) * 8;
+				out.putLong(word, out.getLong(word) | (1L << id));
+			}
+			out.putInt(record + TIME_OFFSET, time);
+		}
+		return out;
+	}
+
+	/**
+	 * Get the level name from a line of level data
+	 *
+	 * @param data
+	 * @return the name
+	 */
+	private static String getNameFromData(String data)
+	{
+		return data.split(" - ")[0];
+	}
+
+	/**
+	 * Turns a time written as mm:ss into seconds
+	 *
+	 * @param time
+	 * @return the seconds, or -1 if there is no time
+	 */
+	private static int parseTime(String time)
+	{
+		String[] parts = time.trim().split(":");
+		try
+		{
+			return Integer.parseInt(parts[0]) * 60 + Integer.parseInt(parts[1]);
+		}
+		catch (NumberFormatException | ArrayIndexOutOfBoundsException e)
+		{
+			return -1; // the time is --:--
+		}
+	}
+}
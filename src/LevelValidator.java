@@ -0,0 +1,227 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java ThreadPoolExecutor
+ *         Retrieved from
+ *         https://www.baeldung.com/thread-pool-java-and-guava
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         A command line tool (no GUI) that reads every entry of the level
+ *         data file, builds each NonogramLevel, and checks that its puzzle has
+ *         exactly one solution. Levels are checked in parallel, one worker per
+ *         core, and the report lists missing images, ambiguous puzzles and the
+ *         time each level took. The solver gives up on a level after a number
+ *         of guesses, so one pathological puzzle can't stall the whole run; a
+ *         level it gives up on, or that fails to load or solve in any way, is
+ *         reported and counts as invalid.
+ *
+ *         Usage: java LevelValidator [level data file] [branch limit]
+ */
+public class LevelValidator
+{
+	// the most guesses the solver makes on one level by default
+	public static final long DEFAULT_BRANCH_LIMIT = 1000000;
+
+	private long branchLimit; // LevelValidator has-a branch limit
+
+	private AtomicInteger checked = new AtomicInteger(); // levels checked
+	private AtomicInteger missing = new AtomicInteger(); // levels with missing images
+	private AtomicInteger ambiguous = new AtomicInteger(); // levels with 2+ solutions
+	private AtomicInteger unsolvable = new AtomicInteger(); // levels with no solution
+	private AtomicInteger tooHard = new AtomicInteger(); // levels that hit the branch limit
+	private AtomicInteger failed = new AtomicInteger(); // levels that threw while solving
+
+	/**
+	 * Constructor
+	 *
+	 * @param branchLimit the most guesses to make on one level
+	 */
+	public LevelValidator(long branchLimit)
+	{
+		this.branchLimit = branchLimit;
+	}
+
+	/**
+	 * Streams every entry of the level data file through the
+	 * workers and prints a line for each level as it finishes
+	 *
+	 * @param fileName
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public void validate(String fileName)
+			throws IOException, InterruptedException
+	{
+		int workers = Runtime.getRuntime().availableProcessors();
+
+		// only a few entries wait in the queue at a time; when it's full
+		// the reading thread checks the level itself, which slows down the
+		// reading instead of holding the whole catalog in memory
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0,
+				TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(workers * 4),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+
+		long start = System.nanoTime();
+		BufferedReader reader = null;
+		try
+		{
+			reader = new BufferedReader(new FileReader(fileName));
+			String line;
+			int id = 0;
+
+			while ((line = reader.readLine()) != null)
+			{ // every line of the file is one level
+				if (line.isBlank()) continue;
+
+				String data = line;
+				int levelID = id++;
+				pool.execute(() -> checkLevel(data, levelID));
+			}
+		}
+		finally
+		{// close the file at the end
+			if (reader != null) reader.close();
+			pool.shutdown();
+		}
+		pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+
+		System.out.printf(
+				"Checked %d levels in %.1f s: %d missing, %d ambiguous, %d unsolvable, "
+						+ "%d too hard, %d failed%n",
+				checked.get(), (System.nanoTime() - start) / 1e9, missing.get(),
+				ambiguous.get(), unsolvable.get(), tooHard.get(), failed.get());
+	}
+
+	/**
+	 * Returns whether every level that was checked is
+	 * present and was shown to have exactly one solution
+	 *
+	 * @return boolean
+	 */
+	public boolean allValid()
+	{
+		return missing.get() + ambiguous.get() + unsolvable.get()
+				+ tooHard.get() + failed.get() == 0;
+	}
+
+	/**
+	 * Checks one entry of the level data file
+	 *
+	 * @param data
+	 * @param id
+	 */
+	private void checkLevel(String data, int id)
+	{
+		checked.incrementAndGet();
+		String name = data.split(" - ")[0];
+
+		// a level needs both its puzzle image and its solved image
+		for (String fileName : new String[] { "images/" + name + ".png",
+				"images/" + name + "_solved.png" })
+		{
+			if (!new File(fileName).isFile())
+			{
+				missing.incrementAndGet();
+				report("MISSING", name, "no file " + fileName);
+				return;
+			}
+		}
+
+		long start = System.nanoTime();
+		NonogramLevel level;
+		try
+		{
+			level = new NonogramLevel(data, id);
+		}
+		catch (Throwable e)
+		{ // an image that can't be decoded (or that's too big to)
+			// counts as missing
+			missing.incrementAndGet();
+			report("MISSING", name, "can't read images/" + name + ".png: " + e);
+			return;
+		}
+		long loaded = System.nanoTime();
+
+		// two solutions are enough to know the puzzle is ambiguous
+		NonogramSolver solver = new NonogramSolver(level.getClues());
+		solver.setBranchLimit(branchLimit);
+		int solutions;
+		try
+		{
+			solutions = solver.countSolutions(2);
+		}
+		catch (Throwable e)
+		{ // such as running out of memory or stack on a huge level
+			failed.incrementAndGet();
+			report("FAILED", name, "solving threw " + e);
+			return;
+		}
+		String times = String.format("load %.2f ms, solve %.2f ms",
+				(loaded - start) / 1e6, (System.nanoTime() - loaded) / 1e6);
+
+		String size = level.getWidth() + "x" + level.getHeight();
+		if (solver.gaveUp() && solutions < 2)
+		{ // it stopped guessing before it could tell
+			tooHard.incrementAndGet();
+			report("TOO HARD", name, size + " gave up after "
+					+ solver.getBranchCount() + " guesses, " + times);
+		}
+		else if (solutions == 1)
+		{
+			report("OK", name, size + " unique, " + times);
+		}
+		else if (solutions == 0)
+		{
+			unsolvable.incrementAndGet();
+			report("UNSOLVABLE", name, size + " no solution, " + times);
+		}
+		else
+		{
+			ambiguous.incrementAndGet();
+			report("AMBIGUOUS", name, size + " 2+ solutions, " + times);
+		}
+	}
+
+	/**
+	 * Prints one line of the report
+	 *
+	 * @param result
+	 * @param name
+	 * @param details
+	 */
+	private static void report(String result, String name, String details)
+	{
+		System.out.printf("%-10s %-20s %s%n", result, name, details);
+	}
+
+	public static void main(String[] args)
+			throws IOException, InterruptedException
+	{
+		String fileName = args.length > 0 ? args[0] : "level_data.txt";
+		long branchLimit = args.length > 1 ? Long.parseLong(args[1])
+				: DEFAULT_BRANCH_LIMIT;
+
+		LevelValidator validator = new LevelValidator(branchLimit);
+		validator.validate(fileName);
+
+		// a non-zero exit code lets a build script fail on bad levels
+		if (!validator.allValid()) System.exit(1);
+	}
+}
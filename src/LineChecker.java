@@ -0,0 +1,129 @@
+import java.util.Arrays;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Keeps track of which rows and columns of the player's board can
+ *         still match their clues. The answer for each line is cached, and a
+ *         move only marks its own row and column as out of date; a line is
+ *         checked again only when it's asked about. Some moves can't change
+ *         the answer at all: a new mark can't make an impossible line
+ *         possible, and taking a mark back can't make a possible line
+ *         impossible, so those keep the cached answer.
+ */
+public class LineChecker
+{
+	private NonogramClues clues; // LineChecker has-a set of clues
+	private NonogramBoard grid; // the player's board
+	private int rows; // LineChecker has-a number of rows
+
+	// LineChecker has-a line solver and a line to work with
+	private NonogramLineSolver lineSolver = new NonogramLineSolver();
+	private byte[] line;
+
+	// the cached answer for each line, and whether it's out of date;
+	// rows are numbered first, then columns after them
+	private boolean[] feasible;
+	private boolean[] stale;
+
+	/**
+	 * Constructor
+	 *
+	 * @param clues
+	 * @param grid the player's board
+	 */
+	public LineChecker(NonogramClues clues, NonogramBoard grid)
+	{
+		this.clues = clues;
+		this.grid = grid;
+		rows = clues.getRows();
+		int lines = rows + clues.getColumns();
+
+		line = new byte[Math.max(rows, clues.getColumns())];
+		feasible = new boolean[lines];
+		stale = new boolean[lines];
+
+		// the clues came from a solution, so every line can match
+		// them until the player marks it; only lines that are already
+		// marked need to be checked
+		Arrays.fill(feasible, true);
+		for (int row = 0; row < rows; row++)
+		{
+			for (int word = 0; word < grid.getWordsPerRow(); word++)
+			{
+				long marks = grid.getFilledWord(row, word)
+						| grid.getCrossedWord(row, word);
+				if (marks != 0) stale[row] = true;
+				for (; marks != 0; marks &= marks - 1)
+				{ // the columns of the marked boxes
+					stale[rows + word * 64 + Long.numberOfTrailingZeros(marks)] = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tells the checker about a move on the player's board
+	 *
+	 * @param row
+	 * @param column
+	 * @param oldState
+	 * @param newState
+	 */
+	public void boxChanged(int row, int column, int oldState, int newState)
+	{
+		if (oldState == newState) return;
+		lineChanged(row, oldState, newState);
+		lineChanged(rows + column, oldState, newState);
+	}
+
+	/**
+	 * Returns whether the player's marks on a row or column can
+	 * still match its clue
+	 *
+	 * @param index
+	 * @param vertical
+	 * @return boolean
+	 */
+	public boolean isFeasible(int index, boolean vertical)
+	{
+		int lineNumber = vertical ? rows + index : index;
+		if (stale[lineNumber])
+		{ // check the line again
+			int length = NonogramLineSolver.readLine(grid, index, vertical,
+					line);
+			feasible[lineNumber] = lineSolver.isFeasible(line, length,
+					clues.getRuns(index, vertical));
+			stale[lineNumber] = false;
+		}
+		return feasible[lineNumber];
+	}
+
+	/**
+	 * Marks a line as out of date, unless the change can't
+	 * change whether it's feasible
+	 *
+	 * @param lineNumber
+	 * @param oldState
+	 * @param newState
+	 */
+	private void lineChanged(int lineNumber, int oldState, int newState)
+	{
+		if (stale[lineNumber]) return;
+
+		// more marks only make a line harder to match,
+		// and fewer marks only make it easier
+		if (oldState == NonogramBoard.EMPTY && !feasible[lineNumber]) return;
+		if (newState == NonogramBoard.EMPTY && feasible[lineNumber]) return;
+		stale[lineNumber] = true;
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Bitwise and Bit Shift Operators
+ *         Retrieved from
+ *         https://docs.oracle.com/javase/tutorial/java/nutsandbolts/op3.html
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Finds the boxes the player has filled that aren't filled in the
+ *         solution, for auto-check mode. Both boards keep each row as words
+ *         of 64 bits, so XOR-ing a word of the player's board with the same
+ *         word of the solution finds 64 wrong boxes at once. The mistakes are
+ *         kept in the same layout, so it can tell which rows changed when the
+ *         mode is turned on or off, and only those rows need to be repainted.
+ */
+public class MistakeChecker
+{
+	private NonogramBoard grid; // the player's board
+	private NonogramBoard solution; // MistakeChecker has-a solution
+	private int rows, wordsPerRow; // MistakeChecker has-a board size
+
+	// the wrongly filled boxes, one bit per box like the boards
+	private long[] mistakes;
+	private boolean enabled; // MistakeChecker knows if it's turned on
+
+	/**
+	 * Constructor
+	 *
+	 * @param grid the player's board
+	 * @param solution
+	 */
+	public MistakeChecker(NonogramBoard grid, NonogramBoard solution)
+	{
+		this.grid = grid;
+		this.solution = solution;
+		rows = grid.getRows();
+		wordsPerRow = grid.getWordsPerRow();
+		mistakes = new long[rows * wordsPerRow];
+	}
+
+	/**
+	 * Returns whether auto-check mode is on
+	 *
+	 * @return enabled
+	 */
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/**
+	 * Turns auto-check mode on or off, and lists the rows
+	 * whose highlighted boxes changed
+	 *
+	 * @param enabled
+	 * @param changedRows filled in with the rows that changed;
+	 *            it needs room for every row
+	 * @return the number of rows that changed
+	 */
+	public int setEnabled(boolean enabled, int[] changedRows)
+	{
+		this.enabled = enabled;
+		int count = 0;
+
+		for (int row = 0; row < rows; row++)
+		{
+			int first = row * wordsPerRow; // the row's first word
+			boolean changed = false;
+			for (int word = 0; word < wordsPerRow; word++)
+			{
+				long wrong = enabled ? findMistakes(row, word) : 0;
+				changed |= wrong != mistakes[first + word];
+				mistakes[first + word] = wrong;
+			}
+			if (changed) changedRows[count++] = row;
+		}
+		return count;
+	}
+
+	/**
+	 * Checks a box again after a move
+	 *
+	 * @param row
+	 * @param column
+	 * @return whether the box's highlight changed
+	 */
+	public boolean boxChanged(int row, int column)
+	{
+		if (!enabled) return false;
+
+		int word = column >>> 6;
+		long wrong = findMistakes(row, word);
+		long old = mistakes[row * wordsPerRow + word];
+		mistakes[row * wordsPerRow + word] = wrong;
+		return ((wrong ^ old) & 1L << column) != 0;
+	}
+
+	/**
+	 * Returns whether a box is highlighted as a mistake
+	 *
+	 * @param row
+	 * @param column
+	 * @return boolean
+	 */
+	public boolean isMistake(int row, int column)
+	{
+		return (mistakes[row * wordsPerRow + (column >>> 6)] & 1L << column) != 0;
+	}
+
+	/**
+	 * Counts the boxes highlighted as mistakes
+	 *
+	 * @return the number of mistakes
+	 */
+	public int countMistakes()
+	{
+		int count = 0;
+		for (long word : mistakes) count += Long.bitCount(word);
+		return count;
+	}
+
+	/**
+	 * Finds the wrongly filled boxes in one word of a row
+	 *
+	 * @param row
+	 * @param word
+	 * @return a bit for each box that's filled but shouldn't be
+	 */
+	private long findMistakes(int row, int word)
+	{
+		long filled = grid.getFilledWord(row, word);
+
+		// the bits that differ from the solution, where the player
+		// filled the box
+		return (filled ^ solution.getFilledWord(row, word)) & filled;
+	}
+}
@@ -0,0 +1,49 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java Flight Recorder custom events
+ *         Retrieved from
+ *         https://docs.oracle.com/en/java/javase/17/docs/api/jdk.jfr/jdk/jfr/Event.html
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         A Java Flight Recorder (JFR) event for one move on the player's
+ *         board, from when the listener starts it to the end of the UI
+ *         update. When nothing is recording, the event is never filled in
+ *         or written.
+ */
+@Name("nonogram.Move")
+@Label("Move")
+@Category("Nonogram")
+@Description("A move on the player's board")
+@StackTrace(false)
+public class MoveEvent extends Event
+{
+	@Label("Row")
+	public int row;
+
+	@Label("Column")
+	public int column;
+
+	@Label("Mode")
+	@Description("Fill, Cross, Undo or Redo")
+	public String mode;
+
+	@Label("New State")
+	@Description("0 for empty, 1 for filled, 2 for crossed")
+	public int state;
+}
@@ -0,0 +1,229 @@
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Circular buffer
+ *         Retrieved from
+ *         https://en.wikipedia.org/wiki/Circular_buffer
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Remembers the moves made on a level so they can be undone and
+ *         redone. Each move is packed into one int and kept in a ring
+ *         buffer that grows as needed, up to a maximum number of moves;
+ *         once it's full, the oldest move is forgotten to make room.
+ *
+ *         A move is packed as: row in bits 18-31, column in bits 4-17,
+ *         old state in bits 2-3 and new state in bits 0-1.
+ */
+public class MoveHistory
+{
+	// this is returned when there is no move to undo or redo; a real
+	// move can never be -1 since no state uses both of its bits
+	public static final int NO_MOVE = -1;
+
+	// the largest row or column a move can hold
+	public static final int MAX_INDEX = (1 << 14) - 1;
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private int[] moves; // MoveHistory has-a ring buffer of moves
+	private int maxMoves; // MoveHistory knows how many moves it can keep
+
+	private int head; // where the oldest move is in the buffer
+	private int count; // how many moves are in the buffer
+	private int position; // how many of those moves are done (not undone)
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxMoves the most moves to remember
+	 */
+	public MoveHistory(int maxMoves)
+	{
+		if (maxMoves < 1)
+		{
+			throw new IllegalArgumentException("maxMoves must be at least 1");
+		}
+		this.maxMoves = maxMoves;
+		moves = new int[Math.min(INITIAL_CAPACITY, maxMoves)];
+	}
+
+	/**
+	 * Remembers a move; any moves that were undone can't be redone
+	 * after this
+	 *
+	 * @param row
+	 * @param column
+	 * @param oldState
+	 * @param newState
+	 */
+	public void record(int row, int column, int oldState, int newState)
+	{
+		int move = pack(row, column, oldState, newState);
+
+		count = position; // forget the undone moves
+
+		if (count == moves.length)
+		{
+			if (moves.length < maxMoves) grow();
+			else
+			{ // the buffer is full, so forget the oldest move
+				head = (head + 1) % moves.length;
+				count--;
+			}
+		}
+
+		moves[(head + count) % moves.length] = move;
+		count++;
+		position = count;
+	}
+
+	/**
+	 * Steps back one move
+	 *
+	 * @return the move to undo, or NO_MOVE if there isn't one
+	 */
+	public int undo()
+	{
+		if (position == 0) return NO_MOVE;
+		position--;
+		return moves[(head + position) % moves.length];
+	}
+
+	/**
+	 * Steps forward one move
+	 *
+	 * @return the move to redo, or NO_MOVE if there isn't one
+	 */
+	public int redo()
+	{
+		if (position == count) return NO_MOVE;
+		position++;
+		return moves[(head + position - 1) % moves.length];
+	}
+
+	/**
+	 * Returns whether there is a move to undo
+	 *
+	 * @return boolean
+	 */
+	public boolean canUndo()
+	{
+		return position > 0;
+	}
+
+	/**
+	 * Returns whether there is a move to redo
+	 *
+	 * @return boolean
+	 */
+	public boolean canRedo()
+	{
+		return position < count;
+	}
+
+	/**
+	 * Get the number of moves that have been done and not undone
+	 *
+	 * @return position
+	 */
+	public int size()
+	{
+		return position;
+	}
+
+	/**
+	 * Forgets every move; the buffer is kept for the next level
+	 */
+	public void clear()
+	{
+		head = 0;
+		count = 0;
+		position = 0;
+	}
+
+	/**
+	 * Packs a move into one int
+	 *
+	 * @param row
+	 * @param column
+	 * @param oldState
+	 * @param newState
+	 * @return the packed move
+	 */
+	public static int pack(int row, int column, int oldState, int newState)
+	{
+		if (row > MAX_INDEX || column > MAX_INDEX)
+		{
+			throw new IllegalArgumentException(
+					"Box is too far from the corner: " + row + ", " + column);
+		}
+		return row << 18 | column << 4 | oldState << 2 | newState;
+	}
+
+	/**
+	 * Get the row of a packed move
+	 *
+	 * @param move
+	 * @return the row
+	 */
+	public static int getRow(int move)
+	{
+		return move >>> 18;
+	}
+
+	/**
+	 * Get the column of a packed move
+	 *
+	 * @param move
+	 * @return the column
+	 */
+	public static int getColumn(int move)
+	{
+		return (move >>> 4) & MAX_INDEX;
+	}
+
+	/**
+	 * Get the state the box had before a packed move
+	 *
+	 * @param move
+	 * @return the old state
+	 */
+	public static int getOldState(int move)
+	{
+		return (move >>> 2) & 3;
+	}
+
+	/**
+	 * Get the state the box had after a packed move
+	 *
+	 * @param move
+	 * @return the new state
+	 */
+	public static int getNewState(int move)
+	{
+		return move & 3;
+	}
+
+	/**
+	 * Doubles the size of the buffer, up to maxMoves, putting
+	 * the oldest move back at the front
+	 */
+	private void grow()
+	{
+		int[] bigger = new int[(int) Math.min((long) moves.length * 2, maxMoves)];
+		for (int i = 0; i < count; i++)
+		{
+			bigger[i] = moves[(head + i) % moves.length];
+		}
+		moves = bigger;
+		head = 0;
+	}
+}
@@ -0,0 +1,316 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Avoiding Benchmarking Pitfalls on the JVM
+ *         Retrieved from
+ *         https://www.oracle.com/technical-resources/articles/java/architect-benchmarking.html
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         A command line tool (no GUI) that times the code that runs on every
+ *         move, level load and save, on square boards from 5x5 to 1000x1000.
+ *         Each benchmark is warmed up first so the JIT has compiled it, then
+ *         timed over several rounds; the result of every call is added to a
+ *         sink so the JIT can't skip the work. The fastest and the median
+ *         round are reported in ns per call.
+ *
+ *         Usage: java NonogramBenchmark [benchmark name filter] [largest size]
+ */
+public class NonogramBenchmark
+{
+	// the board sizes every benchmark runs on
+	private static final int[] SIZES = { 5, 10, 25, 50, 100, 250, 500, 1000 };
+
+	private static final long WARMUP_NS = 500_000_000L;
+	private static final long ROUND_NS = 200_000_000L;
+	private static final int ROUNDS = 5;
+
+	// every result goes here, so the work can't be optimized away
+	private static volatile long sink;
+
+	/**
+	 * One call of the code being timed
+	 */
+	private interface Operation
+	{
+		/**
+		 * Runs the code once
+		 *
+		 * @return anything that depends on the work done
+		 * @throws Exception
+		 */
+		long run() throws Exception;
+	}
+
+	/**
+	 * Sets up a benchmark for one board size
+	 */
+	private interface Benchmark
+	{
+		/**
+		 * Builds whatever the benchmark needs for a board size
+		 *
+		 * @param size
+		 * @return the code to time
+		 * @throws Exception
+		 */
+		Operation setUp(int size) throws Exception;
+	}
+
+	private String name; // NonogramBenchmark has-a name
+	private Benchmark benchmark; // NonogramBenchmark has-a benchmark
+
+	/**
+	 * Constructor
+	 *
+	 * @param name
+	 * @param benchmark
+	 */
+	private NonogramBenchmark(String name, Benchmark benchmark)
+	{
+		this.name = name;
+		this.benchmark = benchmark;
+	}
+
+	/**
+	 * Makes a random square board
+	 *
+	 * @param size
+	 * @param density the chance that a box is filled
+	 * @param random
+	 * @return the board
+	 */
+	private static NonogramBoard randomBoard(int size, double density,
+			Random random)
+	{
+		NonogramBoard board = new NonogramBoard(size, size);
+		for (int row = 0; row < size; row++)
+		{
+			for (int column = 0; column < size; column++)
+			{
+				if (random.nextDouble() < density)
+				{
+					board.setState(row, column, NonogramBoard.FILLED);
+				}
+			}
+		}
+		return board;
+	}
+
+	/**
+	 * Makes a level from a random square board
+	 *
+	 * @param size
+	 * @param density the chance that a box is filled
+	 * @return the level
+	 */
+	private static NonogramLevel randomLevel(int size, double density)
+	{
+		NonogramBoard solution = randomBoard(size, density, new Random(size));
+		return new NonogramLevel("benchmark-" + size, 0, solution,
+				new NonogramClues(solution));
+	}
+
+	/**
+	 * Lists every benchmark
+	 *
+	 * @return the benchmarks
+	 */
+	private static List<NonogramBenchmark> createBenchmarks()
+	{
+		List<NonogramBenchmark> benchmarks = new ArrayList<NonogramBenchmark>();
+
+		// building the text of a row's marker
+		benchmarks.add(new NonogramBenchmark("RowMarker.getRowNumbers", size -> {
+			RowMarker marker = new RowMarker(
+					randomLevel(size, 0.5).getClues().getRowRuns(0), 0, false);
+			return () -> marker.getRowNumbers().length();
+		}));
+
+		// checking a row of the player's board against its marker
+		benchmarks.add(new NonogramBenchmark("RowMarker.checkRow", size -> {
+			NonogramLevel level = randomLevel(size, 0.5);
+			NonogramBoard board = new NonogramBoard(level.getSolution());
+			RowMarker[] markers = new RowMarker[size];
+			for (int row = 0; row < size; row++)
+			{
+				markers[row] = new RowMarker(level.getClues().getRowRuns(row),
+						row, false);
+			}
+			int[] next = new int[1];
+			return () -> {
+				next[0] = next[0] + 1 == size ? 0 : next[0] + 1;
+				return markers[next[0]].checkRow(board) ? 1 : 0;
+			};
+		}));
+
+		// a move: the change to the board, the progress, and the checks
+		// of the move's row and column that updateUI makes
+		benchmarks.add(new NonogramBenchmark("move+getProgress+updateUI", size -> {
+			NonogramSession session = new NonogramSession(randomLevel(size, 0.5),
+					64);
+			Random random = new Random(1);
+			int[] moves = new int[4096];
+			for (int i = 0; i < moves.length; i++)
+			{
+				moves[i] = MoveHistory.pack(random.nextInt(size),
+						random.nextInt(size), 0, random.nextInt(3));
+			}
+			int[] next = new int[1];
+			return () -> {
+				int move = moves[next[0]++ & (moves.length - 1)];
+				int row = MoveHistory.getRow(move);
+				int column = MoveHistory.getColumn(move);
+				session.makeMove(row, column, MoveHistory.getNewState(move));
+				return session.getProgress()
+						+ (session.isLineSolved(row, false) ? 1 : 0)
+						+ (session.isLineSolved(column, true) ? 1 : 0);
+			};
+		}));
+
+		// decoding a level's image
+		benchmarks.add(new NonogramBenchmark("NonogramLevel(png)", size -> {
+			// the image goes in a directory of its own, so the game's
+			// images are never touched
+			String levelName = "benchmark-" + size;
+			File directory = Files.createTempDirectory("benchmark").toFile();
+			directory.deleteOnExit();
+			File image = new File(directory, levelName + ".png");
+			NonogramBoard solution = randomBoard(size, 0.5, new Random(size));
+			BufferedImage png = new BufferedImage(size, size,
+					BufferedImage.TYPE_INT_RGB);
+			for (int row = 0; row < size; row++)
+			{
+				for (int column = 0; column < size; column++)
+				{
+					png.setRGB(column, row,
+							solution.isFilled(row, column) ? 0 : 0xFFFFFF);
+				}
+			}
+			ImageIO.write(png, "png", image);
+			image.deleteOnExit(); // deleted before its directory
+			return () -> new NonogramLevel(levelName, 0, directory)
+					.getSolution().countFilled();
+		}));
+
+		// loading a level from the level pack
+		benchmarks.add(new NonogramBenchmark("LevelPack.loadLevel", size -> {
+			File packFile = File.createTempFile("benchmark", ".pack");
+			packFile.deleteOnExit();
+			LevelPackCompiler compiler = new LevelPackCompiler();
+			compiler.addLevel(randomLevel(size, 0.5));
+			compiler.write(packFile.getPath());
+			LevelPack pack = new LevelPack(packFile.getPath());
+			return () -> pack.loadLevel("benchmark-" + size, 0).getWidth();
+		}));
+
+		// saving a completed level and finding the next one, with
+		// one level in the catalog per box
+		benchmarks.add(new NonogramBenchmark("LevelStatusStore.setComplete", size -> {
+			int levelCount = size * size;
+			List<String> levelData = new ArrayList<String>();
+			for (int i = 0; i < levelCount; i++)
+			{
+				levelData.add("level" + i + " - incomplete - --:--");
+			}
+			File storeFile = File.createTempFile("benchmark", ".dat");
+			storeFile.deleteOnExit();
+			Files.delete(storeFile.toPath());
+			LevelStatusStore store = LevelStatusStore.open(storeFile.getPath(),
+					levelData);
+			int[] next = new int[1];
+			return () -> {
+				next[0] = next[0] + 1 == levelCount ? 0 : next[0] + 1;
+				if (next[0] == 0) store.resetAll();
+				store.setComplete(next[0], next[0]);
+				return store.nextIncomplete(0);
+			};
+		}));
+
+		// solving a level from its clues
+		benchmarks.add(new NonogramBenchmark("NonogramSolver.solve", size -> {
+			// dense boards are solved by line logic alone, like real levels;
+			// sparser random ones can need exponential search
+			NonogramClues clues = randomLevel(size, 0.85).getClues();
+			return () -> new NonogramSolver(clues).solve().countFilled();
+		}));
+
+		return benchmarks;
+	}
+
+	/**
+	 * Times an operation
+	 *
+	 * @param operation
+	 * @return the ns per call of each round, sorted
+	 * @throws Exception
+	 */
+	private static double[] measure(Operation operation) throws Exception
+	{
+		// warm up, and find how many calls fill a round
+		long calls = 0;
+		long result = 0;
+		long start = System.nanoTime();
+		long elapsed;
+		do
+		{
+			result += operation.run();
+			calls++;
+			elapsed = System.nanoTime() - start;
+		}
+		while (elapsed < WARMUP_NS);
+		long callsPerRound = Math.max(1, calls * ROUND_NS / elapsed);
+
+		double[] rounds = new double[ROUNDS];
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			start = System.nanoTime();
+			for (long i = 0; i < callsPerRound; i++) result += operation.run();
+			rounds[round] = (double) (System.nanoTime() - start) / callsPerRound;
+		}
+		sink += result;
+
+		Arrays.sort(rounds);
+		return rounds;
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		// nothing here needs a display
+		System.setProperty("java.awt.headless", "true");
+
+		String filter = args.length > 0 ? args[0] : "";
+		int largest = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+		System.out.printf("%-30s %6s %14s %14s%n", "Benchmark", "Size",
+				"Best ns/op", "Median ns/op");
+		for (NonogramBenchmark benchmark : createBenchmarks())
+		{
+			if (!benchmark.name.contains(filter)) continue;
+			for (int size : SIZES)
+			{
+				if (size > largest) break;
+				double[] rounds = measure(benchmark.benchmark.setUp(size));
+				System.out.printf("%-30s %6s %14.1f %14.1f%n", benchmark.name,
+						size + "x" + size, rounds[0], rounds[ROUNDS / 2]);
+			}
+		}
+	}
+}
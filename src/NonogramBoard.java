@@ -0,0 +1,256 @@
+import java.util.Arrays;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java Long.bitCount
+ *         Retrieved from
+ *         https://docs.oracle.com/javase/8/docs/api/java/lang/Long.html#bitCount-long-
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Stores the state of every box on a Nonogram board (empty, filled or
+ *         crossed out) as packed bits. Each row is stored as a run of 64-bit
+ *         words, with one set of words for filled boxes and another for
+ *         crossed boxes, so that the board can be read one cell at a time or
+ *         one word at a time without touching any GUI components.
+ */
+public class NonogramBoard
+{
+	// These are the states a box on the board can be in
+	public static final int EMPTY = 0;
+	public static final int FILLED = 1;
+	public static final int CROSSED = 2;
+
+	private int rows, columns; // NonogramBoard has-a number of rows and columns
+	private int wordsPerRow; // NonogramBoard knows how many words make a row
+	private long[] filled; // NonogramBoard has-a set of filled words
+	private long[] crossed; // NonogramBoard has-a set of crossed words
+
+	/**
+	 * Constructor
+	 *
+	 * @param rows
+	 * @param columns
+	 */
+	public NonogramBoard(int rows, int columns)
+	{
+		this.rows = rows;
+		this.columns = columns;
+
+		// every row gets enough 64-bit words to hold all of its columns
+		wordsPerRow = (columns + 63) >>> 6;
+		filled = new long[rows * wordsPerRow];
+		crossed = new long[rows * wordsPerRow];
+	}
+
+	/**
+	 * Copy constructor
+	 *
+	 * @param other
+	 */
+	public NonogramBoard(NonogramBoard other)
+	{
+		this(other.rows, other.columns);
+		copyFrom(other);
+	}
+
+	/**
+	 * Get the number of rows
+	 *
+	 * @return rows
+	 */
+	public int getRows()
+	{
+		return rows;
+	}
+
+	/**
+	 * Get the number of columns
+	 *
+	 * @return columns
+	 */
+	public int getColumns()
+	{
+		return columns;
+	}
+
+	/**
+	 * Get the number of 64-bit words used by each row
+	 *
+	 * @return wordsPerRow
+	 */
+	public int getWordsPerRow()
+	{
+		return wordsPerRow;
+	}
+
+	/**
+	 * Get the state of the box at the given row and column
+	 *
+	 * @param row
+	 * @param column
+	 * @return EMPTY, FILLED or CROSSED
+	 */
+	public int getState(int row, int column)
+	{
+		int word = row * wordsPerRow + (column >>> 6);
+		long bit = 1L << column; // shifts only use the low 6 bits
+
+		if ((filled[word] & bit) != 0) return FILLED;
+		if ((crossed[word] & bit) != 0) return CROSSED;
+		return EMPTY;
+	}
+
+	/**
+	 * Sets the state of the box at the given row and column
+	 *
+	 * @param row
+	 * @param column
+	 * @param state
+	 */
+	public void setState(int row, int column, int state)
+	{
+		int word = row * wordsPerRow + (column >>> 6);
+		long bit = 1L << column;
+
+		// clear the box first, then set the bit for the new state
+		filled[word] &= ~bit;
+		crossed[word] &= ~bit;
+
+		if (state == FILLED) filled[word] |= bit;
+		else if (state == CROSSED) crossed[word] |= bit;
+	}
+
+	/**
+	 * Returns whether the box at the given row and column is filled
+	 *
+	 * @param row
+	 * @param column
+	 * @return boolean
+	 */
+	public boolean isFilled(int row, int column)
+	{
+		return (filled[row * wordsPerRow + (column >>> 6)] & (1L << column)) != 0;
+	}
+
+	/**
+	 * Returns whether the box at the given row and column is crossed out
+	 *
+	 * @param row
+	 * @param column
+	 * @return boolean
+	 */
+	public boolean isCrossed(int row, int column)
+	{
+		return (crossed[row * wordsPerRow + (column >>> 6)]
+				& (1L << column)) != 0;
+	}
+
+	/**
+	 * Get one word of filled boxes from a row; bit i of word w
+	 * is the box in column (w * 64 + i)
+	 *
+	 * @param row
+	 * @param word
+	 * @return the filled bits
+	 */
+	public long getFilledWord(int row, int word)
+	{
+		return filled[row * wordsPerRow + word];
+	}
+
+	/**
+	 * Get one word of crossed boxes from a row
+	 *
+	 * @param row
+	 * @param word
+	 * @return the crossed bits
+	 */
+	public long getCrossedWord(int row, int word)
+	{
+		return crossed[row * wordsPerRow + word];
+	}
+
+	/**
+	 * Replaces one word of filled boxes in a row; any box that
+	 * becomes filled is no longer crossed
+	 *
+	 * @param row
+	 * @param word
+	 * @param bits
+	 */
+	public void setFilledWord(int row, int word, long bits)
+	{
+		bits &= getWordMask(word); // ignore bits past the last column
+		filled[row * wordsPerRow + word] = bits;
+		crossed[row * wordsPerRow + word] &= ~bits;
+	}
+
+	/**
+	 * Replaces one word of crossed boxes in a row; any box that
+	 * becomes crossed is no longer filled
+	 *
+	 * @param row
+	 * @param word
+	 * @param bits
+	 */
+	public void setCrossedWord(int row, int word, long bits)
+	{
+		bits &= getWordMask(word);
+		crossed[row * wordsPerRow + word] = bits;
+		filled[row * wordsPerRow + word] &= ~bits;
+	}
+
+	/**
+	 * Returns a mask of the bits in the given word that
+	 * belong to real columns of the board
+	 *
+	 * @param word
+	 * @return the mask
+	 */
+	public long getWordMask(int word)
+	{
+		int remaining = columns - (word << 6);
+		return remaining >= 64 ? -1L : (1L << remaining) - 1;
+	}
+
+	/**
+	 * Counts the filled boxes on the whole board
+	 *
+	 * @return the number of filled boxes
+	 */
+	public int countFilled()
+	{
+		int count = 0;
+		for (long word : filled) count += Long.bitCount(word);
+		return count;
+	}
+
+	/**
+	 * Copies the state of another board of the same size
+	 *
+	 * @param other
+	 */
+	public void copyFrom(NonogramBoard other)
+	{
+		System.arraycopy(other.filled, 0, filled, 0, filled.length);
+		System.arraycopy(other.crossed, 0, crossed, 0, crossed.length);
+	}
+
+	/**
+	 * Sets every box on the board back to empty
+	 */
+	public void clear()
+	{
+		Arrays.fill(filled, 0L);
+		Arrays.fill(crossed, 0L);
+	}
+}
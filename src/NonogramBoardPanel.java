@@ -0,0 +1,338 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+import javax.swing.JPanel;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Painting in AWT and Swing
+ *         Retrieved from
+ *         https://www.oracle.com/java/technologies/painting.html
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Draws the game's grid of boxes straight from a NonogramBoard, so
+ *         the whole board is one component no matter how many boxes it has.
+ *         It works out which box is under a point with arithmetic, and only
+ *         repaints the boxes that change.
+ */
+public class NonogramBoardPanel extends JPanel // NonogramBoardPanel is-a JPanel
+{
+	private static final long serialVersionUID = 1L;
+
+	private NonogramBoard board; // NonogramBoardPanel has-a board to draw
+
+	// NonogramBoardPanel has images for filled and crossed boxes
+	private static Image fillImage = loadImage("images/filled.gif");
+	private static Image crossImage = loadImage("images/cross-out.gif");
+
+	// This is the color of the lines between the boxes
+	private static final Color lineColor = new Color(184, 207, 229);
+
+	// This is drawn over the boxes that are filled by mistake
+	private static final Color mistakeColor = new Color(255, 0, 0, 110);
+
+	// NonogramBoardPanel can outline one box, such as for a hint
+	private int highlightRow = -1, highlightColumn = -1;
+	private Color highlightColor;
+
+	// NonogramBoardPanel may have-a mistake checker for auto-check mode
+	private MistakeChecker mistakeChecker;
+
+	// when the oldest move that hasn't been painted yet
+	// started, from System.nanoTime, or 0 if there isn't one
+	private long unpaintedSince;
+
+	/**
+	 * Constructor
+	 *
+	 * @param board
+	 */
+	public NonogramBoardPanel(NonogramBoard board)
+	{
+		this.board = board;
+		setBackground(Color.white);
+		setOpaque(true);
+	}
+
+	/**
+	 * Get the board being drawn
+	 *
+	 * @return board
+	 */
+	public NonogramBoard getBoard()
+	{
+		return board;
+	}
+
+	/**
+	 * Changes the board being drawn and repaints everything
+	 *
+	 * @param board
+	 */
+	public void setBoard(NonogramBoard board)
+	{
+		this.board = board;
+		highlightRow = -1;
+		repaint();
+	}
+
+	/**
+	 * Changes the mistake checker whose mistakes are drawn
+	 *
+	 * @param mistakeChecker or null to draw no mistakes
+	 */
+	public void setMistakeChecker(MistakeChecker mistakeChecker)
+	{
+		this.mistakeChecker = mistakeChecker;
+		repaint();
+	}
+
+	/**
+	 * Outlines one box in a color, replacing any other outline
+	 *
+	 * @param row
+	 * @param column
+	 * @param color
+	 */
+	public void setHighlight(int row, int column, Color color)
+	{
+		clearHighlight();
+		highlightRow = row;
+		highlightColumn = column;
+		highlightColor = color;
+		repaintCell(row, column);
+	}
+
+	/**
+	 * Removes the outline, if there is one
+	 */
+	public void clearHighlight()
+	{
+		if (highlightRow < 0) return;
+		repaintCell(highlightRow, highlightColumn);
+		highlightRow = -1;
+	}
+
+	/**
+	 * Returns the row under the given y coordinate,
+	 * or -1 if it's outside the board
+	 *
+	 * @param y
+	 * @return row
+	 */
+	public int getRowAt(int y)
+	{
+		if (y < 0 || y >= getHeight() - 1) return -1;
+		return (int) ((long) y * board.getRows() / (getHeight() - 1));
+	}
+
+	/**
+	 * Returns the column under the given x coordinate,
+	 * or -1 if it's outside the board
+	 *
+	 * @param x
+	 * @return column
+	 */
+	public int getColumnAt(int x)
+	{
+		if (x < 0 || x >= getWidth() - 1) return -1;
+		return (int) ((long) x * board.getColumns() / (getWidth() - 1));
+	}
+
+	/**
+	 * Returns the area of the panel covered by a box
+	 *
+	 * @param row
+	 * @param column
+	 * @return the box's rectangle
+	 */
+	public Rectangle getCellBounds(int row, int column)
+	{
+		int x = getCellX(column);
+		int y = getCellY(row);
+		return new Rectangle(x, y, getCellX(column + 1) - x,
+				getCellY(row + 1) - y);
+	}
+
+	/**
+	 * Repaints only the box at the given row and column
+	 *
+	 * @param row
+	 * @param column
+	 */
+	public void repaintCell(int row, int column)
+	{
+		int x = getCellX(column);
+		int y = getCellY(row);
+		repaint(x, y, getCellX(column + 1) - x + 1, getCellY(row + 1) - y + 1);
+	}
+
+	/**
+	 * Repaints only the given rows
+	 *
+	 * @param rows
+	 * @param count the number of rows in the array to repaint
+	 */
+	public void repaintRows(int[] rows, int count)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			int y = getCellY(rows[i]);
+			repaint(0, y, getWidth(), getCellY(rows[i] + 1) - y + 1);
+		}
+	}
+
+	/**
+	 * Repaints the box at the given row and column after a move,
+	 * timing how long it takes for the move to show on screen
+	 * 
+	 * @param row
+	 * @param column
+	 * @param start when the move started, from System.nanoTime
+	 */
+	public void repaintCell(int row, int column, long start)
+	{
+		if (unpaintedSince == 0) unpaintedSince = start;
+		repaintCell(row, column);
+	}
+
+	@Override
+	protected void paintComponent(Graphics g)
+	{
+		long paintStart = System.nanoTime();
+		paintBoard(g);
+		LatencyMonitor.PAINT.recordSince(paintStart);
+
+		// the moves waiting to be painted are on screen now
+		if (unpaintedSince != 0)
+		{
+			LatencyMonitor.CLICK_TO_PAINT.recordSince(unpaintedSince);
+			unpaintedSince = 0;
+		}
+	}
+
+	/**
+	 * Draws the boxes inside the area that needs painting
+	 * 
+	 * @param g
+	 */
+	private void paintBoard(Graphics g)
+	{
+		super.paintComponent(g); // fills in the white background
+		if (board == null) return; // no level has been loaded yet
+
+		// only draw the boxes inside the area that needs painting
+		Rectangle clip = g.getClipBounds();
+		if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+		int firstRow = Math.max(0, getRowAt(clip.y));
+		int lastRow = getRowAt(Math.min(getHeight() - 2,
+				clip.y + clip.height - 1));
+		int firstColumn = Math.max(0, getColumnAt(clip.x));
+		int lastColumn = getColumnAt(Math.min(getWidth() - 2,
+				clip.x + clip.width - 1));
+
+		for (int row = firstRow; row <= lastRow; row++)
+		{
+			int y = getCellY(row);
+			int height = getCellY(row + 1) - y;
+
+			for (int column = firstColumn; column <= lastColumn; column++)
+			{
+				int x = getCellX(column);
+				int width = getCellX(column + 1) - x;
+
+				// draw the box's image if it's filled or crossed out
+				int state = board.getState(row, column);
+				if (state == NonogramBoard.FILLED)
+				{
+					g.drawImage(fillImage, x + 2, y + 2, width - 3, height - 3,
+							this);
+
+					if (mistakeChecker != null
+							&& mistakeChecker.isMistake(row, column))
+					{ // tint the box red if it shouldn't be filled
+						g.setColor(mistakeColor);
+						g.fillRect(x + 1, y + 1, width - 1, height - 1);
+					}
+				}
+				else if (state == NonogramBoard.CROSSED)
+				{
+					g.drawImage(crossImage, x + 2, y + 2, width - 3, height - 3,
+							this);
+				}
+
+				// then draw the box's outline
+				g.setColor(lineColor);
+				g.drawRect(x, y, width, height);
+			}
+		}
+
+		if (highlightRow >= 0)
+		{ // draw a thick outline around the highlighted box
+			Rectangle box = getCellBounds(highlightRow, highlightColumn);
+			g.setColor(highlightColor);
+			for (int i = 0; i < 3; i++)
+			{
+				g.drawRect(box.x + i, box.y + i, box.width - 2 * i,
+						box.height - 2 * i);
+			}
+		}
+	}
+
+	/**
+	 * Reads an image fully into memory, so that drawing it
+	 * at any size happens right away
+	 *
+	 * @param fileName
+	 * @return the image, or null if it can't be read
+	 */
+	private static Image loadImage(String fileName)
+	{
+		try
+		{
+			return ImageIO.read(new File(fileName));
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the x coordinate of the left edge of a column
+	 *
+	 * @param column
+	 * @return x
+	 */
+	private int getCellX(int column)
+	{
+		return (int) ((long) column * (getWidth() - 1) / board.getColumns());
+	}
+
+	/**
+	 * Returns the y coordinate of the top edge of a row
+	 *
+	 * @param row
+	 * @return y
+	 */
+	private int getCellY(int row)
+	{
+		return (int) ((long) row * (getHeight() - 1) / board.getRows());
+	}
+}
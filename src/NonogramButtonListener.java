@@ -1,8 +1,8 @@
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 
-import javax.swing.ImageIcon;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 /**
  * @author Jaiden Smith
@@ -20,106 +20,206 @@ import javax.swing.JOptionPane;
  *         Version/date: 5-25-24
  * 
  *         Responsibilities of class:
- *         A modified ActionListener that listens to the NonogramButton class
- *         and updates the NonogramGame's board of buttons to reflect whether
- *         or not they are filled in or crossed out. It also checks the
- *         player's progress after every move and will carry out the game
- *         completion protocol.
+ *         A modified MouseAdapter that listens to the NonogramBoardPanel,
+ *         works out which box was clicked, and updates the NonogramGame's
+ *         board to reflect whether or not it is filled in or crossed out.
+ *         Moves can be undone and redone through the game's move history.
+ *         It also checks the player's progress after every move and will
+ *         carry out the game completion protocol.
  */
-public class NonogramButtonListener implements ActionListener
+public class NonogramButtonListener extends MouseAdapter
 {
 	private NonogramGame game; // NonogramButtonListener has-a NonogramGame
-	private NonogramButton button; // NonogramButtonListener has-a
-									// NonogramButton
-	private NonogramLevel level; // NonogramButtonListener has-a NonogramLevel
-
-	// NonogramButtonListener has image icons for setting the button's icon
-	private static ImageIcon fillIcon = new ImageIcon("images/filled.gif");
-	private static ImageIcon crossIcon = new ImageIcon("images/cross-out.gif");
+	private NonogramBoardPanel boardPanel; // NonogramButtonListener has-a
+											// NonogramBoardPanel
 
 	/**
 	 * Constructor
 	 * 
 	 * @param game
-	 * @param button
+	 * @param boardPanel
 	 */
-	public NonogramButtonListener(NonogramGame game, NonogramButton button)
+	public NonogramButtonListener(NonogramGame game,
+			NonogramBoardPanel boardPanel)
 	{
 		this.game = game;
-		this.button = button;
-		level = game.getLevel();
+		this.boardPanel = boardPanel;
 	}
 
 	@Override
-	public void actionPerformed(ActionEvent e)
+	public void mousePressed(MouseEvent e)
+	{
+		// only the left mouse button makes moves
+		if (!SwingUtilities.isLeftMouseButton(e)) return;
+
+		// work out which box was clicked
+		int row = boardPanel.getRowAt(e.getY());
+		int column = boardPanel.getColumnAt(e.getX());
+		if (row < 0 || column < 0) return; // the click missed the board
+
+		// time the move from when the click happened, so the time
+		// the event waited for the EDT is counted too
+		long start = System.nanoTime() - Math.max(0,
+				System.currentTimeMillis() - e.getWhen()) * 1_000_000L;
+		boxClicked(row, column, start);
+	}
+
+	/**
+	 * Makes a move on the box at the given row and column
+	 * 
+	 * @param row
+	 * @param column
+	 * @param start when the click happened, from System.nanoTime
+	 */
+	public void boxClicked(int row, int column, long start)
 	{
-		// the level timer will start once any grid buttons are clicked
+		// the level timer will start once any boxes are clicked
 		if (!game.getTimer().isRunning())
 		{ // if it's not running, then start the timer
 			game.getTimer().start();
 		}
 
-		// on a button click, check this structure
+		// read the box's current state from the player's board
+		int oldState = game.getGrid().getState(row, column);
+		int state = oldState;
+
+		// on a box click, check this structure
 		if (game.getFillMode())
 		{ // if the fill mode is true (fill)
-			if (!button.getIsFilled() && button.getIcon() == null)
-			{ // and if the button is not filled
-				// then we can set it to filled and change its appearance
-				button.setIsFilled(true);
-				button.setIcon(fillIcon);
+			if (state == NonogramBoard.EMPTY)
+			{ // and if the box is empty
+				// then we can set it to filled
+				state = NonogramBoard.FILLED;
 			}
-			else if (button.getIsFilled() && button.getIcon() != null)
-			{ // if the button is filled
-				// then we can un-fill it and update the appearance
-				button.setIsFilled(false);
-				button.setIcon(null);
-			}
-			// update the puzzle grid based on the changes we made
-			game.updateGridAtIndex(button.getRow(), button.getColumn(),
-					button.getIsFilled());
-
-			// after any move has been made with the fill mode set to true
-			// check if the player's progress is at 100
-			if (game.getProgress() == 100)
-			{
-				game.getTimer().stop(); // stop the level timer
-				System.out.println("Puzzle Complete!");
-
-				game.editLevelData("complete"); // save the level data
-
-				// show the complete image, the player's time, and prompt to continue
-				int response = JOptionPane.showOptionDialog(game,
-						String.format(
-								"It's a %s!\r\n" + "Time: %s\r\n" + "Continue?",
-								level.getName(), game.getTime()),
-						"Puzzle Complete!", JOptionPane.YES_NO_OPTION,
-						JOptionPane.QUESTION_MESSAGE, level.getSolvedIcon(),
-						new Object[] { "Yes", "No" }, JOptionPane.YES_OPTION);
-
-				if (response == JOptionPane.YES_OPTION)
-				{ // if yes, start a new game
-					game.restart(); // start a new game
-				}
-				else
-				{ // otherwise, we can close the program
-					System.exit(0);
-				}
+			else if (state == NonogramBoard.FILLED)
+			{ // if the box is filled then we can un-fill it
+				state = NonogramBoard.EMPTY;
 			}
 		}
 		else
 		{ // if the fill mode is not true (empty)
-			if (!button.getIsFilled() && button.getIcon() == null)
-			{ // if the button is empty and it has no icon
-				// we can cross it out
-				button.setIcon(crossIcon);
+			if (state == NonogramBoard.EMPTY)
+			{ // if the box is empty we can cross it out
+				state = NonogramBoard.CROSSED;
+			}
+			else if (state == NonogramBoard.CROSSED)
+			{ // if the box is crossed out, then remove the cross
+				state = NonogramBoard.EMPTY;
+			}
+		}
+		// remember the move so it can be undone
+		if (state != oldState)
+		{
+			game.getHistory().record(row, column, oldState, state);
+		}
+		applyMove(row, column, state, start,
+				game.getFillMode() ? "Fill" : "Cross");
+	}
+
+	/**
+	 * Undoes the last move, if there is one
+	 */
+	public void undo()
+	{
+		int move = game.getHistory().undo();
+		if (move == MoveHistory.NO_MOVE) return;
+		applyMove(MoveHistory.getRow(move), MoveHistory.getColumn(move),
+				MoveHistory.getOldState(move), System.nanoTime(), "Undo");
+	}
+
+	/**
+	 * Redoes the last move that was undone, if there is one
+	 */
+	public void redo()
+	{
+		int move = game.getHistory().redo();
+		if (move == MoveHistory.NO_MOVE) return;
+		applyMove(MoveHistory.getRow(move), MoveHistory.getColumn(move),
+				MoveHistory.getNewState(move), System.nanoTime(), "Redo");
+	}
+
+	/**
+	 * Sets the box at the given row and column to a state, then
+	 * updates the UI and checks whether the puzzle is complete
+	 * 
+	 * @param row
+	 * @param column
+	 * @param state
+	 * @param start when the move started, from System.nanoTime
+	 * @param mode what made the move: Fill, Cross, Undo or Redo
+	 */
+	private void applyMove(int row, int column, int state, long start,
+			String mode)
+	{
+		MoveEvent event = new MoveEvent();
+		event.begin();
+
+		// whether the box was filled before the move
+		boolean wasFilled = game.getGrid().getState(row,
+				column) == NonogramBoard.FILLED;
+
+		// update the puzzle grid and the box's appearance
+		long phaseStart = System.nanoTime();
+		game.updateGridAtIndex(row, column, state);
+		LatencyMonitor.UPDATE_GRID.recordSince(phaseStart);
+		boardPanel.repaintCell(row, column, start);
+
+		// update the UI for the row and column that changed
+		game.updateUI(row, column);
+		LatencyMonitor.MOVE.recordSince(start);
+
+		// the event is only filled in if JFR is recording it
+		if (event.shouldCommit())
+		{
+			event.row = row;
+			event.column = column;
+			event.mode = mode;
+			event.state = state;
+			event.commit();
+		}
+
+		// after any move that filled or emptied a box, in either mode
+		// (an undo or redo in cross mode can fill the last box), check
+		// if the player's grid matches the solution
+		if ((state == NonogramBoard.FILLED) != wasFilled && game.isComplete())
+		{
+			NonogramLevel level = game.getLevel();
+			game.getTimer().stop(); // stop the level timer
+			System.out.println("Puzzle Complete!");
+
+			game.editLevelData("complete"); // save the level data
+
+			CompletionEvent completion = new CompletionEvent();
+			if (completion.shouldCommit())
+			{
+				completion.level = level.getName();
+				completion.width = level.getWidth();
+				completion.height = level.getHeight();
+				completion.time = game.getSession().getElapsedSeconds();
+				completion.moves = game.getHistory().size();
+				completion.commit();
+			}
+
+			// show the complete image, the player's time, and prompt to continue
+			int response = JOptionPane.showOptionDialog(game,
+					String.format(
+							"It's a %s!\r\n" + "Time: %s\r\n"
+									+ "Levels left: %d\r\n" + "Continue?",
+							level.getName(), game.getTime(),
+							game.getLevelsRemaining()),
+					"Puzzle Complete!", JOptionPane.YES_NO_OPTION,
+					JOptionPane.QUESTION_MESSAGE, level.getSolvedIcon(),
+					new Object[] { "Yes", "No" }, JOptionPane.YES_OPTION);
+
+			if (response == JOptionPane.YES_OPTION)
+			{ // if yes, start the next level in the same window
+				game.restart();
 			}
-			else if (!button.getIsFilled() && button.getIcon() != null)
-			{ // if the button is empty, but it has an icon
-				// we can assume it's crossed out, then remove the icon
-				button.setIcon(null);
+			else
+			{ // otherwise, we can close the program
+				System.exit(0);
 			}
 		}
-		game.updateUI(); // update the UI
 	}
 
 }
@@ -0,0 +1,313 @@
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java Long.numberOfTrailingZeros
+ *         Retrieved from
+ *         https://docs.oracle.com/javase/8/docs/api/java/lang/Long.html#numberOfTrailingZeros-long-
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Holds the clues of a level (the lengths of the runs of filled boxes
+ *         in every row and column) as arrays of integers, and checks whether
+ *         a row or column of a NonogramBoard matches its clue without building
+ *         any strings or new arrays.
+ */
+public class NonogramClues
+{
+	private int[][] rowRuns; // NonogramClues has-a list of runs for each row
+	private int[][] columnRuns; // NonogramClues has-a list of runs for each column
+
+	/**
+	 * Constructor that derives the clues from a solution board
+	 *
+	 * @param solution
+	 */
+	public NonogramClues(NonogramBoard solution)
+	{
+		rowRuns = new int[solution.getRows()][];
+		columnRuns = new int[solution.getColumns()][];
+
+		for (int i = 0; i < rowRuns.length; i++)
+		{
+			rowRuns[i] = getRuns(solution, i, false);
+		}
+		for (int i = 0; i < columnRuns.length; i++)
+		{
+			columnRuns[i] = getRuns(solution, i, true);
+		}
+	}
+
+	/**
+	 * Constructor for clues that were already computed
+	 *
+	 * @param rowRuns
+	 * @param columnRuns
+	 */
+	public NonogramClues(int[][] rowRuns, int[][] columnRuns)
+	{
+		this.rowRuns = rowRuns;
+		this.columnRuns = columnRuns;
+	}
+
+	/**
+	 * Get the number of rows
+	 *
+	 * @return the number of rows
+	 */
+	public int getRows()
+	{
+		return rowRuns.length;
+	}
+
+	/**
+	 * Get the number of columns
+	 *
+	 * @return the number of columns
+	 */
+	public int getColumns()
+	{
+		return columnRuns.length;
+	}
+
+	/**
+	 * Get the runs of the given row
+	 *
+	 * @param row
+	 * @return the row's runs
+	 */
+	public int[] getRowRuns(int row)
+	{
+		return rowRuns[row];
+	}
+
+	/**
+	 * Get the runs of the given column
+	 *
+	 * @param column
+	 * @return the column's runs
+	 */
+	public int[] getColumnRuns(int column)
+	{
+		return columnRuns[column];
+	}
+
+	/**
+	 * Get the runs of a row or column
+	 *
+	 * @param index
+	 * @param vertical
+	 * @return the line's runs
+	 */
+	public int[] getRuns(int index, boolean vertical)
+	{
+		return vertical ? columnRuns[index] : rowRuns[index];
+	}
+
+	/**
+	 * Returns the lengths of the runs of filled boxes
+	 * in a row or column of the board
+	 *
+	 * @param board
+	 * @param index
+	 * @param vertical
+	 * @return the line's runs
+	 */
+	public static int[] getRuns(NonogramBoard board, int index,
+			boolean vertical)
+	{
+		// count the runs first so the array is the exact size
+		int[] runs = new int[countRuns(board, index, vertical)];
+		int runCount = 0; // this is the run we're filling in
+		int boxCounter = 0; // this will count the consecutive filled boxes
+		int length = vertical ? board.getRows() : board.getColumns();
+
+		for (int i = 0; i < length; i++)
+		{
+			if (isFilled(board, index, vertical, i))
+			{ // if the spot is filled, add to the counter
+				boxCounter++;
+			}
+			else if (boxCounter > 0)
+			{ // when the counter > 0, add it to the list and reset it
+				runs[runCount++] = boxCounter;
+				boxCounter = 0;
+			}
+		}
+		// by the end, if counter is still over 0, add it to the list
+		if (boxCounter > 0) runs[runCount] = boxCounter;
+
+		return runs;
+	}
+
+	/**
+	 * Returns whether the filled boxes in a row or column
+	 * of the board form exactly the given runs
+	 *
+	 * @param board
+	 * @param index
+	 * @param vertical
+	 * @param runs
+	 * @return boolean
+	 */
+	public static boolean matches(NonogramBoard board, int index,
+			boolean vertical, int[] runs)
+	{
+		if (!vertical) return rowMatches(board, index, runs);
+
+		int runCount = 0; // this is the next run we expect to see
+		int boxCounter = 0; // this will count the consecutive filled boxes
+
+		for (int i = 0; i < board.getRows(); i++)
+		{
+			if (board.isFilled(i, index))
+			{ // if the spot is filled, add to the counter
+				boxCounter++;
+			}
+			else if (boxCounter > 0)
+			{ // a run just ended, so it must be the next run of the clue
+				if (runCount == runs.length || runs[runCount] != boxCounter)
+				{
+					return false;
+				}
+				runCount++;
+				boxCounter = 0;
+			}
+		}
+		if (boxCounter > 0)
+		{ // the last run touches the edge of the board
+			if (runCount == runs.length || runs[runCount] != boxCounter)
+			{
+				return false;
+			}
+			runCount++;
+		}
+		// every run of the clue must have been seen
+		return runCount == runs.length;
+	}
+
+	/**
+	 * Checks a row against its runs by jumping from run to
+	 * run through the row's packed words
+	 *
+	 * @param board
+	 * @param row
+	 * @param runs
+	 * @return boolean
+	 */
+	private static boolean rowMatches(NonogramBoard board, int row,
+			int[] runs)
+	{
+		int runCount = 0; // this is the next run we expect to see
+		int column = nextFilled(board, row, 0);
+
+		while (column < board.getColumns())
+		{
+			// find where this run ends and compare it to the clue
+			int end = nextEmpty(board, row, column);
+			if (runCount == runs.length || runs[runCount] != end - column)
+			{
+				return false;
+			}
+			runCount++;
+			column = nextFilled(board, row, end);
+		}
+		// every run of the clue must have been seen
+		return runCount == runs.length;
+	}
+
+	/**
+	 * Returns the first filled column at or after the given
+	 * column, or the number of columns if there is none
+	 *
+	 * @param board
+	 * @param row
+	 * @param from
+	 * @return the column
+	 */
+	public static int nextFilled(NonogramBoard board, int row, int from)
+	{
+		int columns = board.getColumns();
+		if (from >= columns) return columns;
+
+		int word = from >>> 6;
+		long bits = board.getFilledWord(row, word) & (-1L << from);
+
+		while (bits == 0)
+		{ // skip over words with no filled boxes
+			if (++word == board.getWordsPerRow()) return columns;
+			bits = board.getFilledWord(row, word);
+		}
+		return Math.min(columns, (word << 6) + Long.numberOfTrailingZeros(bits));
+	}
+
+	/**
+	 * Returns the first column at or after the given column that
+	 * isn't filled, or the number of columns if there is none
+	 *
+	 * @param board
+	 * @param row
+	 * @param from
+	 * @return the column
+	 */
+	public static int nextEmpty(NonogramBoard board, int row, int from)
+	{
+		int columns = board.getColumns();
+		if (from >= columns) return columns;
+
+		int word = from >>> 6;
+		long bits = ~board.getFilledWord(row, word) & (-1L << from);
+
+		while (bits == 0)
+		{ // skip over words where every box is filled
+			if (++word == board.getWordsPerRow()) return columns;
+			bits = ~board.getFilledWord(row, word);
+		}
+		return Math.min(columns, (word << 6) + Long.numberOfTrailingZeros(bits));
+	}
+
+	/**
+	 * Counts the runs of filled boxes in a row or column
+	 *
+	 * @param board
+	 * @param index
+	 * @param vertical
+	 * @return the number of runs
+	 */
+	private static int countRuns(NonogramBoard board, int index,
+			boolean vertical)
+	{
+		int count = 0;
+		boolean previous = false; // whether the last box was filled
+		int length = vertical ? board.getRows() : board.getColumns();
+
+		for (int i = 0; i < length; i++)
+		{
+			boolean current = isFilled(board, index, vertical, i);
+			if (current && !previous) count++; // a new run starts here
+			previous = current;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns whether the i-th box of a row or column is filled
+	 *
+	 * @param board
+	 * @param index
+	 * @param vertical
+	 * @param i
+	 * @return boolean
+	 */
+	private static boolean isFilled(NonogramBoard board, int index,
+			boolean vertical, int i)
+	{
+		return vertical ? board.isFilled(i, index) : board.isFilled(index, i);
+	}
+}
@@ -3,26 +3,29 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.GridLayout;
 import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Scanner;
 
+import javax.swing.AbstractAction;
 import javax.swing.ImageIcon;
+import javax.swing.InputMap;
 import javax.swing.JButton;
+import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JLayeredPane;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
+import javax.swing.JToggleButton;
+import javax.swing.KeyStroke;
 import javax.swing.SwingConstants;
 import javax.swing.Timer;
 import javax.swing.UIManager;
@@ -63,25 +66,70 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 {
 
 	private boolean fillMode = true; // NonogramGame has-a fill mode
-	private boolean[][] grid; // NonogramGame has-a grid
+	private NonogramSession session; // NonogramGame has-a session
+	private HintEngine hintEngine; // NonogramGame has-a hint engine
+	private LineChecker lineChecker; // NonogramGame has-a line checker
+	private boolean warnMode = false; // flag lines that can't be solved
+	private MistakeChecker mistakeChecker; // NonogramGame has-a mistake checker
+	private boolean autoCheck = false; // highlight wrongly filled boxes
+	private int[] changedRows; // the rows auto-check needs to repaint
 	private NonogramLevel level; // NonogramGame has-a level
 	private JProgressBar progressBar; // NonogramGame has-a progress bar
 	private Timer gameTimer; // NonogramGame has-a timer
-	private int timeCounter = 0; // NonogramGame keeps track of the time
+
+	// the most moves that can be undone; at 4 bytes a move,
+	// the history is at most 256 KB
+	private static final int HISTORY_LIMIT = 1 << 16;
+
+	// the EDT counts as stalled once it's busy for this many ms; it
+	// can be changed with -Dnonogram.stallMs
+	private static final long STALL_THRESHOLD = 100;
+	private static boolean latencyReportAdded;
+
+	// if this is set, each level's session is recorded to a file in it
+	private static final String RECORD_DIRECTORY = System
+			.getProperty("nonogram.recordDir");
 
 	// NonogramGame has-a list of row markers and column markers
 	private ArrayList<RowMarker> rowMarkerList;
+	private ArrayList<RowMarker> columnMarkerList;
+
+	// NonogramGame has panels that are reused from level to level
+	private NonogramBoardPanel boardPanel;
+	private JPanel rowMarkerPanel, columnMarkerPanel;
+	private JLabel timerLabel; // NonogramGame has-a timer label
+	private JLabel latencyLabel; // NonogramGame has-a latency overlay
 
 	private int FRAME_SIZE = 700; // NonogramGame knows its frame size
 
 	// This will track the level completion data
-	private static ArrayList<String> levelData;
+	private static LevelStatusStore levelStore;
+
+	// This holds the precompiled levels, if there is a level pack
+	private static LevelPack levelPack;
+
+	// This builds levels, and builds the next one ahead of time
+	private static LevelPrefetcher prefetcher;
+
+	// This saves the level data file in the background
+	private static LevelDataWriter dataWriter;
 
 	// These are the colors of the row markers
 	public static Color markerColor1 = new Color(204, 221, 252);
 	public static Color markerColor2 = new Color(153, 172, 207);
 	public static Color solvedColor = new Color(98, 240, 105);
 
+	// This is the color of a marker whose line can't match its clue
+	private static final Color impossibleColor = new Color(240, 110, 98);
+
+	// These are the colors of a hint's outline
+	private static final Color fillHintColor = new Color(255, 153, 0);
+	private static final Color crossHintColor = new Color(33, 87, 235);
+
+	// These are the colors of the progress bar
+	private static final Color warmerColor = new Color(250, 32, 32);
+	private static final Color colderColor = new Color(33, 87, 235);
+
 	// The how to play message
 	private static String helpMessage = "";
 
@@ -144,13 +192,17 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 		}
 
 		// now we'll read from the level file
+		ArrayList<String> levelData = new ArrayList<String>();
 		try
 		{
 			reader = new Scanner(new File("level_data.txt"));
-			levelData = new ArrayList<String>();
 
-			// read from the file until it is empty
-			while (reader.hasNext()) levelData.add(reader.nextLine());
+			// read from the file until it is empty, skipping blank lines
+			while (reader.hasNext())
+			{
+				String line = reader.nextLine();
+				if (!line.isBlank()) levelData.add(line);
+			}
 		}
 		catch (FileNotFoundException e1)
 		{
@@ -161,42 +213,56 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 			if (reader != null) reader.close();
 		}
 
-		// after establishing the array of level data
-		// we can create a new level
-		level = createNewLevel();
-
-		// What if all the levels are complete and the level
-		// object does not get instantiated?
-		if (level == null)
+		// if the levels have been compiled into a pack, load them from
+		// there instead of decoding each level's image
+		if (levelPack == null && new File("levels.pack").isFile())
 		{
-			// open a prompt informing the user that they can
-			// either reset the data, or stop here
-			int response = JOptionPane.showOptionDialog(this, noticeMessage,
-					"Hey!", JOptionPane.YES_NO_OPTION,
-					JOptionPane.QUESTION_MESSAGE, null,
-					new Object[] { "Yes", "No" }, JOptionPane.YES_OPTION);
+			try
+			{
+				levelPack = new LevelPack("levels.pack");
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+		}
+		if (prefetcher == null) prefetcher = new LevelPrefetcher(levelPack);
 
-			if (response == JOptionPane.YES_OPTION)
-			{// if yes is chosen, reset the data and start a new game
-				resetLevelData();
-				level = createNewLevel();
-			} // otherwise, close the program
-			else System.exit(0);
+		// the status of each level is kept in the status store, and
+		// the level data file is saved in the background to match it;
+		// make sure both are written out before the program closes
+		if (dataWriter == null)
+		{
+			try
+			{
+				levelStore = LevelStatusStore.open("level_status.dat", levelData);
+			}
+			catch (IOException e)
+			{ // keep the status in memory; the level data file still
+				// gets every change
+				e.printStackTrace();
+				levelStore = LevelStatusStore.inMemory(levelData);
+			}
+			dataWriter = new LevelDataWriter("level_data.txt", levelData);
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				dataWriter.flush();
+				levelStore.force();
+			}));
 		}
 
-		// create the arrays with the image dimensions
-		grid = new boolean[level.getWidth()][level.getHeight()];
+		// after establishing the array of level data
+		// we can create a new level
+		level = createNextLevel();
 
 		// JPanels for organization
-		// buttonPanel holds the buttons in a grid
-		JPanel buttonPanel = new JPanel(
-				new GridLayout(level.getWidth(), level.getHeight()));
+		// boardPanel draws the grid of boxes
+		boardPanel = new NonogramBoardPanel(null);
 
 		// rowMarkerPanel holds the row markers on the side of the grid
-		JPanel rowMarkerPanel = new JPanel(new GridBagLayout());
+		rowMarkerPanel = new JPanel(new GridBagLayout());
 
 		// columnMarkerPanel holds the row markers on the top of the grid
-		JPanel columnMarkerPanel = new JPanel(new GridBagLayout());
+		columnMarkerPanel = new JPanel(new GridBagLayout());
 
 		// infoPanel holds the information buttons
 		JPanel infoPanel = new JPanel(new GridBagLayout());
@@ -204,21 +270,37 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 		// progressPane holds the progress bar and image
 		JLayeredPane progressPane = new JLayeredPane();
 
-		// buttonPanel setup
-		buttonPanel.setPreferredSize(
+		// boardPanel setup
+		boardPanel.setPreferredSize(
 				new Dimension(3 * FRAME_SIZE / 4, 3 * FRAME_SIZE / 4));
-		for (int x = 0; x < grid.length; x++)
+
+		// one listener handles the clicks for every box on the board
+		NonogramButtonListener boardListener = new NonogramButtonListener(this,
+				boardPanel);
+		boardPanel.addMouseListener(boardListener);
+
+		// Ctrl+Z undoes a move, and Ctrl+Y or Ctrl+Shift+Z redoes it
+		InputMap keys = getRootPane()
+				.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+		keys.put(KeyStroke.getKeyStroke("control Z"), "undo");
+		keys.put(KeyStroke.getKeyStroke("control Y"), "redo");
+		keys.put(KeyStroke.getKeyStroke("control shift Z"), "redo");
+		getRootPane().getActionMap().put("undo", new AbstractAction()
 		{
-			for (int y = 0; y < grid[x].length; y++)
-			{ // for every spot on the grid, make a button with a listener
-				NonogramButton button = new NonogramButton(x, y);
-				button.setBackground(Color.white);
-
-				button.addActionListener(
-						new NonogramButtonListener(this, button));
-				buttonPanel.add(button); // add the button to the panel
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{
+				boardListener.undo();
 			}
-		}
+		});
+		getRootPane().getActionMap().put("redo", new AbstractAction()
+		{
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{
+				boardListener.redo();
+			}
+		});
 
 		// This the button that toggles the fill mode
 		JButton toggleButton = new JButton("Fill");
@@ -242,45 +324,16 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 			}
 		});
 
-		// Setting up the row markers
+		// Setting up the lists of markers; the markers
+		// themselves are added when the level is loaded
 		rowMarkerList = new ArrayList<RowMarker>();
-
-		// constraint configurations for the row markers
-		constraints.gridx = 0;
-		constraints.weightx = 1.0;
-		constraints.weighty = 1.0;
-		constraints.fill = GridBagConstraints.BOTH;
-
-		for (int i = 0; i < level.getHeight(); i++)
-		{// create and add a marker to the list of markers and to the panel
-			RowMarker rm = new RowMarker(level.getSolution(), i, false);
-			rm.setHorizontalAlignment(SwingConstants.RIGHT);
-			rowMarkerList.add(rm);
-
-			constraints.gridy = i;
-			rowMarkerPanel.add(rm, constraints);
-		}
-
-		// Adding the column markers
-		constraints.gridy = 0;
-
-		for (int i = 0; i < level.getWidth(); i++)
-		{// create and add a marker to the list of markers and to the panel
-			RowMarker rm = new RowMarker(level.getSolution(), i, true);
-			rm.setHorizontalAlignment(SwingConstants.CENTER);
-			rm.setVerticalAlignment(SwingConstants.BOTTOM);
-			rowMarkerList.add(rm);
-
-			constraints.gridx = i;
-			columnMarkerPanel.add(rm, constraints);
-		}
+		columnMarkerList = new ArrayList<RowMarker>();
 
 		// progress bar setup
 		progressBar = new JProgressBar(JProgressBar.VERTICAL, 0, 100);
 		progressBar.setBorderPainted(false); // hide border
-		progressBar.setValue(getProgress()); // set progress
 		progressBar.setBounds(24, 12, 16, 320); // set bounds
-		progressBar.setForeground(new Color(250, 32, 32)); // make it red
+		progressBar.setForeground(warmerColor); // make it red
 
 		progressBar.setString("");
 		progressBar.setStringPainted(true);
@@ -313,6 +366,8 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 		});
 		constraints.gridx = 0;
 		constraints.gridy = 0;
+		constraints.weightx = 1.0;
+		constraints.weighty = 1.0;
 		constraints.fill = GridBagConstraints.HORIZONTAL;
 		infoPanel.add(helpButton, constraints); // add the button to the panel
 
@@ -334,6 +389,63 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 		constraints.gridy = 0;
 		infoPanel.add(infoButton, constraints); // add the button to the panel
 
+		// This button points out a box that can be worked out
+		JButton hintButton = new JButton("Hint");
+		hintButton.setPreferredSize(new Dimension(64, 48));
+		hintButton.setMargin(new Insets(0, 0, 0, 0));
+
+		hintButton.addActionListener(new ActionListener()
+		{ // this button needs an actionListener
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{
+				showHint();
+			}
+		});
+		constraints.gridx = 2;
+		constraints.gridy = 0;
+		infoPanel.add(hintButton, constraints); // add the button to the panel
+
+		// This button toggles flagging the rows and columns
+		// whose marks can no longer match their clues
+		JToggleButton warnButton = new JToggleButton("Warn");
+		warnButton.setPreferredSize(new Dimension(64, 48));
+		warnButton.setMargin(new Insets(0, 0, 0, 0));
+
+		warnButton.addActionListener(new ActionListener()
+		{ // this button needs an actionListener
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{ // recolor every marker for the new mode
+				warnMode = warnButton.isSelected();
+				for (RowMarker marker : rowMarkerList) checkMarker(marker);
+				for (RowMarker marker : columnMarkerList) checkMarker(marker);
+			}
+		});
+		constraints.gridx = 3;
+		constraints.gridy = 0;
+		infoPanel.add(warnButton, constraints); // add the button to the panel
+
+		// This button toggles auto-check, which highlights
+		// every box that's filled by mistake
+		JToggleButton checkButton = new JToggleButton("Check");
+		checkButton.setPreferredSize(new Dimension(64, 48));
+		checkButton.setMargin(new Insets(0, 0, 0, 0));
+
+		checkButton.addActionListener(new ActionListener()
+		{ // this button needs an actionListener
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{ // only the rows with mistakes need to be repainted
+				autoCheck = checkButton.isSelected();
+				int count = mistakeChecker.setEnabled(autoCheck, changedRows);
+				boardPanel.repaintRows(changedRows, count);
+			}
+		});
+		constraints.gridx = 4;
+		constraints.gridy = 0;
+		infoPanel.add(checkButton, constraints); // add the button to the panel
+
 		// Adding the panels
 		// edit the constraints as we go
 		// the toggle button will be at 0,0
@@ -356,11 +468,11 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 		constraints.gridy = 0;
 		this.add(columnMarkerPanel, constraints);
 
-		// the button panel will be at 1,1
+		// the board panel will be at 1,1
 		constraints.gridx = 1;
 		constraints.gridy = 1;
 		constraints.fill = GridBagConstraints.NONE;
-		this.add(buttonPanel, constraints);
+		this.add(boardPanel, constraints);
 
 		// the info panel will be at 2,0
 		constraints.gridx = 2;
@@ -372,8 +484,42 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 		constraints.gridy = 1;
 		this.add(progressPane, constraints);
 
+		// the latency overlay will be at 3,1, and is hidden until
+		// F3 is pressed; it's only refreshed while it's showing
+		latencyLabel = new JLabel();
+		latencyLabel.setFont(new Font("Monospaced", Font.PLAIN, 11));
+		latencyLabel.setVerticalAlignment(SwingConstants.TOP);
+		latencyLabel.setVisible(false);
+		constraints.gridx = 3;
+		constraints.gridy = 1;
+		this.add(latencyLabel, constraints);
+
+		Timer latencyTimer = new Timer(500, new ActionListener()
+		{
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{ // show the latest percentiles
+				latencyLabel.setText(getLatencyText());
+			}
+		});
+		keys.put(KeyStroke.getKeyStroke("F3"), "latency");
+		getRootPane().getActionMap().put("latency", new AbstractAction()
+		{
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{
+				latencyLabel.setVisible(!latencyLabel.isVisible());
+				if (latencyLabel.isVisible())
+				{
+					latencyLabel.setText(getLatencyText());
+					latencyTimer.start();
+				}
+				else latencyTimer.stop();
+			}
+		});
+
 		// this label will display the level's elapsed time
-		JLabel timerLabel = new JLabel("--:--");
+		timerLabel = new JLabel("--:--");
 		timerLabel.setHorizontalAlignment(SwingConstants.CENTER);
 		timerLabel.setFont(new Font("Courier New", Font.ITALIC, 30));
 		timerLabel.setOpaque(true);
@@ -384,7 +530,7 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 		constraints.gridy = 1;
 		constraints.ipadx = 10;
 		constraints.ipady = 10;
-		constraints.gridwidth = 2;
+		constraints.gridwidth = 5;
 		constraints.fill = GridBagConstraints.HORIZONTAL;
 		infoPanel.add(timerLabel, constraints);
 
@@ -393,18 +539,178 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 		{
 			@Override
 			public void actionPerformed(ActionEvent e)
-			{ // update time and timer label
-				timeCounter++;
+			{ // update the timer label; the session keeps the time
 				timerLabel.setText(getTime());
 			}
 		});
 
+		// now that every component exists, swap in the first level
+		loadLevel(level);
+
 		this.setMinimumSize(new Dimension(FRAME_SIZE, FRAME_SIZE));
 		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+		// watch for the EDT getting stuck, and write the
+		// latency histograms to a file on exit
+		if (!latencyReportAdded)
+		{
+			latencyReportAdded = true;
+			LatencyMonitor.startStallDetector(
+					Long.getLong("nonogram.stallMs", STALL_THRESHOLD));
+			Runtime.getRuntime().addShutdownHook(new Thread(
+					() -> LatencyMonitor.dump("latency_report.txt")));
+		}
+
+		// make sure the last session's recording is finished on exit
+		if (RECORD_DIRECTORY != null)
+		{
+			Runtime.getRuntime().addShutdownHook(new Thread(this::closeRecorder));
+		}
 		pack();
 		setVisible(true);
 	}
 
+	/**
+	 * Creates the next incomplete level; if every level is
+	 * complete, the player can reset the level data or quit
+	 * 
+	 * @return NonogramLevel
+	 */
+	private NonogramLevel createNextLevel()
+	{
+		NonogramLevel newLevel = createNewLevel();
+
+		// What if all the levels are complete and the level
+		// object does not get instantiated?
+		if (newLevel == null)
+		{
+			// open a prompt informing the user that they can
+			// either reset the data, or stop here
+			int response = JOptionPane.showOptionDialog(this, noticeMessage,
+					"Hey!", JOptionPane.YES_NO_OPTION,
+					JOptionPane.QUESTION_MESSAGE, null,
+					new Object[] { "Yes", "No" }, JOptionPane.YES_OPTION);
+
+			if (response == JOptionPane.YES_OPTION)
+			{// if yes is chosen, reset the data and start a new game
+				resetLevelData();
+				newLevel = createNewLevel();
+			} // otherwise, close the program
+			else System.exit(0);
+		}
+		return newLevel;
+	}
+
+	/**
+	 * Swaps a level into the game, keeping the frame and its
+	 * components; markers are reused wherever the new level
+	 * has a row or column in the same place
+	 * 
+	 * @param newLevel
+	 */
+	public void loadLevel(NonogramLevel newLevel)
+	{
+		long start = System.nanoTime();
+		level = newLevel;
+
+		// start a new session, which has an empty board with the
+		// image dimensions and an empty move history
+		closeRecorder();
+		session = new NonogramSession(level, HISTORY_LIMIT);
+		hintEngine = new HintEngine(level.getClues(), session.getGrid());
+		lineChecker = new LineChecker(level.getClues(), session.getGrid());
+		mistakeChecker = new MistakeChecker(session.getGrid(),
+				level.getSolution());
+		changedRows = new int[level.getHeight()];
+		mistakeChecker.setEnabled(autoCheck, changedRows);
+		boardPanel.setBoard(session.getGrid());
+		boardPanel.setMistakeChecker(mistakeChecker);
+		if (RECORD_DIRECTORY != null) startRecorder();
+
+		// give the markers the new level's clues
+		setUpMarkers(rowMarkerList, rowMarkerPanel, level.getHeight(), false);
+		setUpMarkers(columnMarkerList, columnMarkerPanel, level.getWidth(),
+				true);
+
+		// lines with no filled boxes are already solved
+		// on an empty board, so check every marker once
+		for (RowMarker marker : rowMarkerList) checkMarker(marker);
+		for (RowMarker marker : columnMarkerList) checkMarker(marker);
+
+		// reset the timer and the progress bar
+		gameTimer.stop();
+		timerLabel.setText("--:--");
+		progressBar.setValue(getProgress());
+		progressBar.setForeground(warmerColor);
+		progressBar.setString("");
+
+		// the marker panels may have changed size
+		rowMarkerPanel.revalidate();
+		columnMarkerPanel.revalidate();
+		repaint();
+
+		// start building the level that will come after this one,
+		// so it's ready as soon as this one is complete
+		int next = findIncompleteLevel(level.getID());
+		if (next >= 0) prefetcher.prefetch(levelStore.getName(next), next);
+		LatencyMonitor.LEVEL_LOAD.recordSince(start);
+	}
+
+	/**
+	 * Gives each marker in a list the runs of its line, adding
+	 * markers to the panel if there are more lines than before
+	 * and removing them if there are fewer
+	 * 
+	 * @param markers
+	 * @param panel
+	 * @param count
+	 * @param vertical
+	 */
+	private void setUpMarkers(ArrayList<RowMarker> markers, JPanel panel,
+			int count, boolean vertical)
+	{
+		// constraint configurations for the markers
+		GridBagConstraints constraints = new GridBagConstraints();
+		constraints.weightx = 1.0;
+		constraints.weighty = 1.0;
+		constraints.fill = GridBagConstraints.BOTH;
+
+		for (int i = 0; i < count; i++)
+		{
+			int[] runs = level.getClues().getRuns(i, vertical);
+
+			if (i < markers.size())
+			{ // reuse the marker that's already in this spot
+				markers.get(i).setRuns(runs);
+				continue;
+			}
+
+			// create and add a marker to the list of markers and to the panel
+			RowMarker rm = new RowMarker(runs, i, vertical);
+			if (vertical)
+			{ // column markers go along the top of the grid
+				rm.setHorizontalAlignment(SwingConstants.CENTER);
+				rm.setVerticalAlignment(SwingConstants.BOTTOM);
+				constraints.gridx = i;
+				constraints.gridy = 0;
+			}
+			else
+			{ // row markers go down the side of the grid
+				rm.setHorizontalAlignment(SwingConstants.RIGHT);
+				constraints.gridx = 0;
+				constraints.gridy = i;
+			}
+			markers.add(rm);
+			panel.add(rm, constraints);
+		}
+
+		// remove any markers the new level doesn't need
+		while (markers.size() > count)
+		{
+			panel.remove(markers.remove(markers.size() - 1));
+		}
+	}
+
 	/**
 	 * Creates a NonogramLevel that will either be
 	 * a level or null based on whether an incomplete
@@ -414,23 +720,45 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 	 */
 	public NonogramLevel createNewLevel()
 	{
-		NonogramLevel newLevel = null;
-		// iterate through each level and instantiate a level object
-		// once the next incomplete level is found
-		for (int i = 0; i < levelData.size(); i++)
-		{
-			if (levelData.get(i).contains("incomplete"))
-			{
-				// setup the level with the name
-				newLevel = new NonogramLevel(levelData.get(i), i);
-				break; // a level was found, so we can stop here
-			}
-		}
+		// find the next incomplete level
+		int i = findIncompleteLevel(-1);
+
 		// this should return a new level or null if
-		// an incomplete level isn't found
+		// an incomplete level isn't found; if the level
+		// was prefetched, it's handed over right away
+		if (i < 0) return null;
+		long start = System.nanoTime();
+		NonogramLevel newLevel = prefetcher.getLevel(levelStore.getName(i), i);
+		LatencyMonitor.LEVEL_BUILD.recordSince(start);
 		return newLevel;
 	}
 
+	/**
+	 * Returns the index of the first incomplete level
+	 * in the status store, skipping the given index
+	 * 
+	 * @param skipID
+	 * @return the index, or -1 if there is none
+	 */
+	private int findIncompleteLevel(int skipID)
+	{
+		// the status store finds the next incomplete level
+		// from its bitmap, 64 levels at a time
+		int i = levelStore.nextIncomplete(0);
+		if (i >= 0 && i == skipID) i = levelStore.nextIncomplete(skipID + 1);
+		return i;
+	}
+
+	/**
+	 * Get the number of levels that aren't complete
+	 * 
+	 * @return the number of levels
+	 */
+	public int getLevelsRemaining()
+	{
+		return levelStore.countRemaining();
+	}
+
 	/**
 	 * Get the current fill mode
 	 * 
@@ -448,11 +776,7 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 	 */
 	public String getTime()
 	{
-		String minutes = timeCounter / 60 > 9 ? "" + timeCounter / 60
-				: "0" + timeCounter / 60;
-		String seconds = timeCounter % 60 > 9 ? "" + timeCounter % 60
-				: "0" + timeCounter % 60;
-		return minutes + ":" + seconds;
+		return session.getTime();
 	}
 
 	/**
@@ -483,146 +807,283 @@ public class NonogramGame extends JFrame // NonogramGame is-a JFrame
 	 */
 	public int getProgress()
 	{
-		int progress = 0; // this will track progress
-		// total number of spaces in the grid
-		int total = level.getWidth() * level.getHeight();
+		return session.getProgress();
+	}
 
-		for (int x = 0; x < level.getSolution().length; x++)
-		{
-			for (int y = 0; y < level.getSolution()[x].length; y++)
-			{
-				// if the player's grid matches the solution
-				if (grid[x][y] == level.getSolution()[x][y])
-				{
-					progress++; // add to the progress
-				}
-			}
-		}
-		// return a percentage of the progress / total
-		return (progress * 100) / total;
+	/**
+	 * Returns whether every box on the player's grid
+	 * matches the solution
+	 * 
+	 * @return boolean
+	 */
+	public boolean isComplete()
+	{
+		return session.isComplete();
+	}
+
+	/**
+	 * Get the history of moves on the current level
+	 * 
+	 * @return history
+	 */
+	public MoveHistory getHistory()
+	{
+		return session.getHistory();
+	}
+
+	/**
+	 * Get the player's board
+	 * 
+	 * @return grid
+	 */
+	public NonogramBoard getGrid()
+	{
+		return session.getGrid();
+	}
+
+	/**
+	 * Get the current level's session
+	 * 
+	 * @return session
+	 */
+	public NonogramSession getSession()
+	{
+		return session;
 	}
 
 	/**
 	 * Updates the puzzle grid at the given row and column
-	 * with the provided boolean value
+	 * with the provided state (empty, filled or crossed)
 	 * 
 	 * @param row
 	 * @param column
-	 * @param filled
+	 * @param state
 	 */
-	public void updateGridAtIndex(int row, int column, boolean filled)
+	public void updateGridAtIndex(int row, int column, int state)
 	{
-		grid[row][column] = filled;
+		int oldState = session.getGrid().getState(row, column);
+		session.setState(row, column, state);
+
+		// the hint engine and the checkers keep up with every
+		// move, and any hint that was showing is out of date
+		hintEngine.boxChanged(row, column, oldState, state);
+		lineChecker.boxChanged(row, column, oldState, state);
+		if (mistakeChecker.boxChanged(row, column))
+		{
+			boardPanel.repaintCell(row, column);
+		}
+		boardPanel.clearHighlight();
 	}
 
 	/**
-	 * Updates the UI based on the player's progress
+	 * Outlines a box that can be worked out from the clues and
+	 * the player's marks; the outline is orange if the box should
+	 * be filled and blue if it should be crossed out
 	 */
-	public void updateUI()
+	public void showHint()
 	{
-		for (RowMarker marker : rowMarkerList)
-		{ // for every marker, check if the row matches the solution
-			if (marker.checkRow(grid))
-			{// if so, change the color to green
-				marker.setBackground(solvedColor);
-			}
-			else
-			{// otherwise, reset the color
-				marker.setBackground(marker.getColor());
-			}
+		long start = System.nanoTime();
+		int box = hintEngine.getHint();
+		LatencyMonitor.HINT.recordSince(start);
+
+		if (box == HintEngine.CONTRADICTION)
+		{
+			JOptionPane.showMessageDialog(this,
+					"Some of your marks don't fit the clues.", "Hint",
+					JOptionPane.WARNING_MESSAGE);
+		}
+		else if (box == HintEngine.NO_HINT)
+		{
+			JOptionPane.showMessageDialog(this,
+					"No box can be worked out from one row or column alone.\n"
+							+ "Try comparing rows and columns together.",
+					"Hint", JOptionPane.INFORMATION_MESSAGE);
 		}
+		else
+		{
+			int row = box / level.getWidth();
+			int column = box % level.getWidth();
+			boolean fill = hintEngine.getKnownState(row,
+					column) == NonogramBoard.FILLED;
+			boardPanel.setHighlight(row, column,
+					fill ? fillHintColor : crossHintColor);
+		}
+	}
+
+	/**
+	 * Updates the UI based on the player's progress after
+	 * a move at the given row and column; only the markers
+	 * of that row and column can have changed
+	 * 
+	 * @param row
+	 * @param column
+	 */
+	public void updateUI(int row, int column)
+	{
+		long start = System.nanoTime();
+
+		// check the row and column that the move touched
+		checkMarker(rowMarkerList.get(row));
+		checkMarker(columnMarkerList.get(column));
+
 		// update progress bar
-		if (progressBar.getValue() < getProgress())
+		long progressStart = System.nanoTime();
+		int progress = getProgress();
+		LatencyMonitor.PROGRESS.recordSince(progressStart);
+		if (progressBar.getValue() < progress)
 		{// if the progress should increase, turn the bar red
-			progressBar.setForeground(new Color(250, 32, 32));
+			progressBar.setForeground(warmerColor);
 			progressBar.setString("Getting Warmer...");
 		}
 		else
 		{ // otherwise, turn it blue
-			progressBar.setForeground(new Color(33, 87, 235));
+			progressBar.setForeground(colderColor);
 			progressBar.setString("Getting Colder...");
 		}
 		// update progress bar value
-		progressBar.setValue(getProgress());
+		progressBar.setValue(progress);
+		LatencyMonitor.UPDATE_UI.recordSince(start);
 	}
 
 	/**
-	 * Writes the completion status of a level
-	 * to the level data file
+	 * Checks if a marker's row/column matches the solution
+	 * and colors the marker to match; in warn mode, a marker
+	 * whose row/column can't match any more is colored red
+	 * 
+	 * @param marker
 	 */
-	public void saveDataToFile()
+	private void checkMarker(RowMarker marker)
 	{
-		// create a file writer
-		BufferedWriter writer = null;
-		try
-		{
-			// overwrite the level data file
-			writer = new BufferedWriter(
-					new FileWriter("level_data.txt", false));
-
-			for (String data : levelData)
-			{ // write each line of data to the file
-				writer.write(data);
-				writer.newLine();
-			}
+		if (marker.checkRow(session.getGrid()))
+		{// if so, change the color to green
+			marker.setBackground(solvedColor);
 		}
-		catch (IOException e)
-		{
-			e.printStackTrace();
+		else if (warnMode
+				&& !lineChecker.isFeasible(marker.getIndex(), marker.isVertical()))
+		{// if the marks can't be finished, change the color to red
+			marker.setBackground(impossibleColor);
 		}
-		finally
-		{// finally, close the file
-			if (writer != null) try
-			{
-				writer.close();
-			}
-			catch (IOException e)
-			{
-				e.printStackTrace();
-			}
+		else
+		{// otherwise, reset the color
+			marker.setBackground(marker.getColor());
+		}
+	}
+
+	/**
+	 * Queues the current level's line of the level data
+	 * file to be written in the background, so that the
+	 * file matches the status store
+	 */
+	public void saveDataToFile()
+	{
+		long start = System.nanoTime();
+		SaveEvent event = new SaveEvent();
+		event.begin();
+
+		int id = level.getID();
+		int bestTime = levelStore.getBestTime(id);
+		dataWriter.update(id, levelStore.getName(id) + " - "
+				+ (levelStore.isComplete(id) ? "complete" : "incomplete") + " - "
+				+ (bestTime < 0 ? "--:--" : NonogramSession.formatTime(bestTime)));
+		LatencyMonitor.SAVE_QUEUE.recordSince(start);
+
+		if (event.shouldCommit())
+		{
+			event.level = level.getName();
+			event.phase = "queue";
+			event.commit();
 		}
 	}
 
 	/**
-	 * Modifies the level data array at the
-	 * index of the current level and writes
-	 * the contents to the level data file
+	 * Changes the status of the current level in the
+	 * status store and saves it; a completed level
+	 * keeps its best time
 	 * 
 	 * @param completionStatus
 	 */
 	public void editLevelData(String completionStatus)
 	{
-		// edit the data of the current level
-		levelData.set(level.getID(),
-				level.getName() + " - " + completionStatus + " - " + getTime());
-		// save the data to the file
+		// only the current level's record is changed
+		if (completionStatus.equals("complete"))
+		{
+			levelStore.setComplete(level.getID(),
+					session.getElapsedSeconds());
+		}
+		else levelStore.setIncomplete(level.getID());
 		saveDataToFile();
 	}
 
 	public void resetLevelData()
 	{
 		// to reset level data, set all
-		// completion statuses to incomplete
-		// and write to the file
-		for (int i = 0; i < levelData.size(); i++)
+		// completion statuses to incomplete,
+		// clear the best times and write to the file
+		levelStore.resetAll();
+		dataWriter.resetAll();
+	}
+
+	/**
+	 * Writes the median and 99th percentile time of each part
+	 * of a move, level load and save for the latency overlay
+	 * 
+	 * @return the text, as html
+	 */
+	private static String getLatencyText()
+	{
+		StringBuilder text = new StringBuilder(
+				"<html><table cellspacing=0><tr><th></th><th>p50 ms</th>"
+						+ "<th>p99 ms</th></tr>");
+		for (LatencyHistogram histogram : LatencyMonitor.getHistograms())
 		{
-			// get the current string and alter it
-			String data = levelData.get(i).replace("complete", "incomplete");
-			data = data.replaceAll("\\d", "-"); // reset level times
-			levelData.set(i, data); // set the current index to the altered data
+			if (histogram.getCount() == 0) continue;
+			text.append(String.format(
+					"<tr><td>%s</td><td align=right>%.2f</td>"
+							+ "<td align=right>%.2f</td></tr>",
+					histogram.getName(), histogram.getPercentile(50) / 1e6,
+					histogram.getPercentile(99) / 1e6));
 		}
-		// after altering the data, save it to the file
-		saveDataToFile();
+		text.append("</table>EDT stalls: ").append(LatencyMonitor.getStallCount());
+		return text.append("</html>").toString();
 	}
 
 	/**
-	 * Starts a new game and disposes of the current one
-	 * (This method will change once text IO is implemented)
+	 * Starts recording the current session to a new
+	 * file in the recording directory
+	 */
+	private void startRecorder()
+	{
+		File file = new File(RECORD_DIRECTORY, level.getName() + "-"
+				+ System.currentTimeMillis() + ".ngr");
+		try
+		{
+			file.getParentFile().mkdirs();
+			session.setRecorder(new SessionRecorder(
+					new FileOutputStream(file), level));
+		}
+		catch (IOException e)
+		{ // the game still works without a recording
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Finishes the current session's recording, if there is one
+	 */
+	private void closeRecorder()
+	{
+		if (session != null && session.getRecorder() != null)
+		{
+			session.getRecorder().close();
+		}
+	}
+
+	/**
+	 * Starts the next level in the same window
 	 */
 	public void restart()
 	{
-		NonogramGame game = new NonogramGame();
-		this.dispose();
+		loadLevel(createNextLevel());
 	}
 
 	public static void main(String[] args)
@@ -29,58 +29,131 @@ public class NonogramLevel
 {
 	private String name; // NonogramLevel has-a name
 	private int levelID; // NonogramLevel has-a level ID
-	private BufferedImage image; // NonogramLevel has-an image
 	private ImageIcon solvedImage; // NonogramLevel has-a solved image
 	private int width, height; // NonogramLevel has-a width and height
-	private boolean[][] solution; // NonogramLevel has-a solution array
+	private NonogramBoard solution; // NonogramLevel has-a solution board
+	private NonogramClues clues; // NonogramLevel has-a set of clues
+
+	// this is the color of a filled box in a level's image
+	private static final int BLACK = Color.black.getRGB();
 	
 	public NonogramLevel(String data, int id)
+	{
+		this(data, id, new File("images"));
+	}
+
+	/**
+	 * Constructor for a level whose image is in a different
+	 * directory than the game's images
+	 * 
+	 * @param data a line of level data
+	 * @param id
+	 * @param directory where the level's image is
+	 */
+	public NonogramLevel(String data, int id, File directory)
 	{
 		// constructor receives a level data string and an ID
 		// format of the string is: name - completion - --:--
+		LevelLoadEvent event = new LevelLoadEvent();
+		event.begin();
 		
 		name = data.split(" - ")[0]; // this is the level name
 		levelID = id;
 		
+		// the image is only needed while we build the solution,
+		// so it isn't kept once the constructor is done
+		BufferedImage image = null;
 		try
 		{ // try to read the image based on the level's name
-			image = ImageIO.read(new File("images/" + name + ".png"));
+			image = ImageIO.read(new File(directory, name + ".png"));
 		}
 		catch (IOException e)
 		{
 			e.printStackTrace();
 		}
 		
-		solvedImage = new ImageIcon("images/" + name + "_solved.png");
-		
+		// the image's width is the number of columns
+		// and its height is the number of rows
 		width = image.getWidth();
 		height = image.getHeight();
 		
-		solution = new boolean[width][height];
+		solution = new NonogramBoard(height, width);
 
-		// Setting up the solution grid based on the image
-		for (int x = 0; x < width; x++)
+		// read every pixel of the image in one go, one row after another
+		int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+		// Setting up the solution board based on the image
+		for (int y = 0; y < height; y++)
 		{
-			for (int y = 0; y < height; y++)
+			int rowStart = y * width;
+			for (int word = 0; word < solution.getWordsPerRow(); word++)
 			{
-				// set the solution grid's corresponding coordinate
-				// to a boolean based on whether this pixel is black
-				solution[x][y] = (image.getRGB(y, x) == Color.black.getRGB());
+				// pack up to 64 pixels into one word, with a bit
+				// set wherever the pixel is black
+				long bits = 0;
+				int first = word << 6;
+				int last = Math.min(width, first + 64);
+				for (int x = first; x < last; x++)
+				{
+					if (pixels[rowStart + x] == BLACK) bits |= 1L << x;
+				}
+				solution.setFilledWord(y, word, bits);
 			}
 		}
+
+		// work out the row and column clues once, up front
+		clues = new NonogramClues(solution);
+
+		if (event.shouldCommit())
+		{
+			event.level = name;
+			event.width = width;
+			event.height = height;
+			event.source = "image";
+			event.commit();
+		}
+	}
+
+	/**
+	 * Constructor for a level whose solution and clues
+	 * were already worked out (such as from a LevelPack)
+	 * 
+	 * @param name
+	 * @param id
+	 * @param solution
+	 * @param clues
+	 */
+	public NonogramLevel(String name, int id, NonogramBoard solution,
+			NonogramClues clues)
+	{
+		this.name = name;
+		levelID = id;
+		this.solution = solution;
+		this.clues = clues;
+		width = solution.getColumns();
+		height = solution.getRows();
 	}
 	
 	/**
 	 * Get the level solution
 	 * @return solution
 	 */
-	public boolean[][] getSolution()
+	public NonogramBoard getSolution()
 	{
 		return solution;
 	}
 	
 	/**
-	 * Get the level width
+	 * Get the level's row and column clues
+	 * @return clues
+	 */
+	public NonogramClues getClues()
+	{
+		return clues;
+	}
+	
+	/**
+	 * Get the level width (the number of columns)
 	 * @return width
 	 */
 	public int getWidth()
@@ -89,7 +162,7 @@ public class NonogramLevel
 	}
 	
 	/**
-	 * Get the level height
+	 * Get the level height (the number of rows)
 	 * @return height
 	 */
 	public int getHeight()
@@ -98,11 +171,16 @@ public class NonogramLevel
 	}
 	
 	/**
-	 * Get the icon of the solved image
+	 * Get the icon of the solved image; it's only loaded
+	 * the first time it's needed
 	 * @return solvedImage
 	 */
 	public ImageIcon getSolvedIcon()
 	{
+		if (solvedImage == null)
+		{
+			solvedImage = new ImageIcon("images/" + name + "_solved.png");
+		}
 		return solvedImage;
 	}
 	
@@ -0,0 +1,306 @@
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Nonogram - Solution techniques
+ *         Retrieved from
+ *         https://en.wikipedia.org/wiki/Nonogram#Solution_techniques
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Works out which boxes of a single row or column are forced to be
+ *         filled or crossed out, given the line's runs and the boxes that are
+ *         already known. Every placement of the runs that agrees with the
+ *         known boxes is considered at once with two passes (one from each
+ *         end of the line), so a line is solved in time proportional to its
+ *         length times its number of runs. The work arrays are kept between
+ *         calls so that solving a line doesn't allocate.
+ */
+public class NonogramLineSolver
+{
+	private int[] runs; // NonogramLineSolver has-a list of runs for the line
+	private int length; // NonogramLineSolver has-a line length
+
+	// these are the work arrays, reused between lines
+	private boolean[] forward = new boolean[0]; // prefixes that can hold runs
+	private boolean[] backward = new boolean[0]; // suffixes that can hold runs
+	private int[] crossCount = new int[0]; // crossed boxes before each box
+	private int[] fillCount = new int[0]; // placements covering each box
+	private boolean[] canBeEmpty = new boolean[0]; // boxes that can be empty
+
+	/**
+	 * Finds every box of the line that is forced by the runs
+	 * and the known boxes. Each entry of cells is EMPTY (unknown),
+	 * FILLED or CROSSED; unknown boxes that are forced are
+	 * changed to FILLED or CROSSED.
+	 *
+	 * @param cells
+	 * @param length
+	 * @param runs
+	 * @return false if no placement of the runs fits the known boxes
+	 */
+	public boolean solve(byte[] cells, int length, int[] runs)
+	{
+		this.runs = runs;
+		this.length = length;
+		ensureCapacity(length, runs.length);
+
+		// count the crossed boxes so we can tell if a run fits anywhere
+		crossCount[0] = 0;
+		for (int i = 0; i < length; i++)
+		{
+			crossCount[i + 1] = crossCount[i]
+					+ (cells[i] == NonogramBoard.CROSSED ? 1 : 0);
+		}
+
+		fillForward(cells);
+		if (!forward[index(runs.length, length)]) return false;
+		fillBackward(cells);
+
+		// count how many placements cover each box and find
+		// the boxes that can be left empty
+		int k = runs.length;
+		for (int i = 0; i <= length; i++) fillCount[i] = 0;
+
+		for (int j = 0; j < k; j++)
+		{
+			int run = runs[j];
+			for (int start = 0; start + run <= length; start++)
+			{
+				if (canPlace(cells, j, start))
+				{ // mark the start and end of the run
+					fillCount[start]++;
+					fillCount[start + run]--;
+				}
+			}
+		}
+
+		for (int i = 0; i < length; i++)
+		{
+			boolean empty = false;
+			if (cells[i] != NonogramBoard.FILLED)
+			{ // the box can be empty if some runs fit before it
+				// and the rest of the runs fit after it
+				for (int j = 0; j <= k && !empty; j++)
+				{
+					empty = forward[index(j, i)] && backward[index(j, i + 1)];
+				}
+			}
+			canBeEmpty[i] = empty;
+		}
+
+		// now settle every box that only has one choice left
+		int covering = 0;
+		for (int i = 0; i < length; i++)
+		{
+			covering += fillCount[i];
+			boolean canBeFilled = covering > 0;
+
+			if (!canBeFilled && !canBeEmpty[i]) return false;
+
+			if (cells[i] == NonogramBoard.EMPTY)
+			{
+				if (!canBeFilled) cells[i] = NonogramBoard.CROSSED;
+				else if (!canBeEmpty[i]) cells[i] = NonogramBoard.FILLED;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether the runs can be placed on the line at all
+	 * without changing any of the known boxes
+	 *
+	 * @param cells
+	 * @param length
+	 * @param runs
+	 * @return boolean
+	 */
+	public boolean isFeasible(byte[] cells, int length, int[] runs)
+	{
+		this.runs = runs;
+		this.length = length;
+		ensureCapacity(length, runs.length);
+
+		crossCount[0] = 0;
+		for (int i = 0; i < length; i++)
+		{
+			crossCount[i + 1] = crossCount[i]
+					+ (cells[i] == NonogramBoard.CROSSED ? 1 : 0);
+		}
+
+		fillForward(cells);
+		return forward[index(runs.length, length)];
+	}
+
+	/**
+	 * Reads a row or column of the board into an array of states
+	 *
+	 * @param board
+	 * @param index
+	 * @param vertical
+	 * @param cells
+	 * @return the length of the line
+	 */
+	public static int readLine(NonogramBoard board, int index,
+			boolean vertical, byte[] cells)
+	{
+		int length = vertical ? board.getRows() : board.getColumns();
+		for (int i = 0; i < length; i++)
+		{
+			cells[i] = (byte) (vertical ? board.getState(i, index)
+					: board.getState(index, i));
+		}
+		return length;
+	}
+
+	/**
+	 * Works out, for every prefix of the line and every number of
+	 * runs, whether those runs can be placed in that prefix
+	 *
+	 * @param cells
+	 */
+	private void fillForward(byte[] cells)
+	{
+		int k = runs.length;
+
+		forward[index(0, 0)] = true;
+		for (int j = 1; j <= k; j++) forward[index(j, 0)] = false;
+
+		for (int i = 1; i <= length; i++)
+		{
+			for (int j = 0; j <= k; j++)
+			{
+				// the last box of the prefix is left empty
+				boolean possible = cells[i - 1] != NonogramBoard.FILLED
+						&& forward[index(j, i - 1)];
+
+				if (!possible && j > 0)
+				{ // or run j - 1 ends on the last box of the prefix
+					int start = i - runs[j - 1];
+					if (start >= 0 && fits(start, runs[j - 1]))
+					{
+						if (start == 0) possible = (j == 1);
+						else possible = cells[start - 1] != NonogramBoard.FILLED
+								&& forward[index(j - 1, start - 1)];
+					}
+				}
+				forward[index(j, i)] = possible;
+			}
+		}
+	}
+
+	/**
+	 * Works out, for every suffix of the line and every run,
+	 * whether that run and the ones after it can be placed
+	 * in that suffix
+	 *
+	 * @param cells
+	 */
+	private void fillBackward(byte[] cells)
+	{
+		int k = runs.length;
+
+		for (int j = 0; j <= k; j++) backward[index(j, length)] = (j == k);
+
+		for (int i = length - 1; i >= 0; i--)
+		{
+			for (int j = k; j >= 0; j--)
+			{
+				// the first box of the suffix is left empty
+				boolean possible = cells[i] != NonogramBoard.FILLED
+						&& backward[index(j, i + 1)];
+
+				if (!possible && j < k && fits(i, runs[j]))
+				{ // or run j starts on the first box of the suffix
+					int end = i + runs[j];
+					if (end == length) possible = (j == k - 1);
+					else possible = cells[end] != NonogramBoard.FILLED
+							&& backward[index(j + 1, end + 1)];
+				}
+				backward[index(j, i)] = possible;
+			}
+		}
+	}
+
+	/**
+	 * Returns whether run j can start at the given box with
+	 * the rest of the runs fitting around it
+	 *
+	 * @param cells
+	 * @param j
+	 * @param start
+	 * @return boolean
+	 */
+	private boolean canPlace(byte[] cells, int j, int start)
+	{
+		int end = start + runs[j];
+		if (!fits(start, runs[j])) return false;
+
+		// the runs before this one must fit before it, with a gap
+		boolean left = (start == 0) ? (j == 0)
+				: cells[start - 1] != NonogramBoard.FILLED
+						&& forward[index(j, start - 1)];
+		if (!left) return false;
+
+		// and the runs after it must fit after it, with a gap
+		if (end == length) return j == runs.length - 1;
+		return cells[end] != NonogramBoard.FILLED
+				&& backward[index(j + 1, end + 1)];
+	}
+
+	/**
+	 * Returns whether a run can cover the given boxes,
+	 * which means none of them are crossed out
+	 *
+	 * @param start
+	 * @param run
+	 * @return boolean
+	 */
+	private boolean fits(int start, int run)
+	{
+		return start + run <= length
+				&& crossCount[start + run] == crossCount[start];
+	}
+
+	/**
+	 * Returns the position of (runs, boxes) in the work arrays
+	 *
+	 * @param j
+	 * @param i
+	 * @return the position
+	 */
+	private int index(int j, int i)
+	{
+		return j * (length + 1) + i;
+	}
+
+	/**
+	 * Grows the work arrays if the line is bigger than
+	 * any line solved before
+	 *
+	 * @param length
+	 * @param runCount
+	 */
+	private void ensureCapacity(int length, int runCount)
+	{
+		int table = (runCount + 1) * (length + 1);
+		if (forward.length < table)
+		{
+			forward = new boolean[table];
+			backward = new boolean[table];
+		}
+		if (crossCount.length < length + 1)
+		{
+			crossCount = new int[length + 1];
+			fillCount = new int[length + 1];
+			canBeEmpty = new boolean[length];
+		}
+	}
+}
@@ -0,0 +1,264 @@
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Holds the state of one play-through of a level without any Swing
+ *         components: the player's board, the running count of boxes that
+ *         match the solution, the move history and the level's time, which
+ *         starts with the first move and stops when the level is complete.
+ *         NonogramGame shows a session on screen, SessionReplayer drives one
+ *         with no display at all, and SessionServer hosts one for each
+ *         connection. A session is only used by one thread at a time. If the
+ *         session has a recorder, every change to the board is written to it.
+ */
+public class NonogramSession
+{
+	private NonogramLevel level; // NonogramSession has-a level
+	private NonogramBoard grid; // NonogramSession has-a grid
+	private MoveHistory history; // NonogramSession has-a move history
+
+	// NonogramSession keeps a running count of the boxes that match the solution
+	private int matchCount;
+
+	// NonogramSession keeps the time of the first move and of completion,
+	// in ns, or -1 if they haven't happened yet
+	private long startTime = -1;
+	private long endTime = -1;
+
+	// NonogramSession has-a recorder, or null if it isn't being recorded
+	private SessionRecorder recorder;
+
+	/**
+	 * Constructor
+	 *
+	 * @param level
+	 * @param historyLimit the most moves that can be undone
+	 */
+	public NonogramSession(NonogramLevel level, int historyLimit)
+	{
+		this.level = level;
+		grid = new NonogramBoard(level.getHeight(), level.getWidth());
+		history = new MoveHistory(historyLimit);
+		reset();
+	}
+
+	/**
+	 * Clears the board, the move history and the time
+	 */
+	public void reset()
+	{
+		grid.clear();
+		history.clear();
+		startTime = -1;
+		endTime = -1;
+
+		// the board starts empty, so every box that should stay
+		// empty already matches the solution
+		matchCount = getBoxCount() - level.getSolution().countFilled();
+	}
+
+	/**
+	 * Makes a move the way a click does: the move is remembered
+	 * so it can be undone, then the box is set to the new state
+	 *
+	 * @param row
+	 * @param column
+	 * @param state
+	 */
+	public void makeMove(int row, int column, int state)
+	{
+		int oldState = grid.getState(row, column);
+		if (state != oldState) history.record(row, column, oldState, state);
+		setState(row, column, state);
+	}
+
+	/**
+	 * Sets the box at the given row and column to a state
+	 * (empty, filled or crossed), keeping the count of
+	 * matching boxes up to date
+	 *
+	 * @param row
+	 * @param column
+	 * @param state
+	 */
+	public void setState(int row, int column, int state)
+	{
+		// the first move starts the clock
+		if (startTime < 0) startTime = System.nanoTime();
+
+		int oldState = grid.getState(row, column);
+		grid.setState(row, column, state);
+
+		// only a change between filled and not filled can
+		// change whether this box matches the solution
+		boolean wasFilled = oldState == NonogramBoard.FILLED;
+		if (wasFilled != (state == NonogramBoard.FILLED))
+		{
+			if (wasFilled == level.getSolution().isFilled(row, column))
+			{ // the box used to match, so now it doesn't
+				matchCount--;
+			}
+			else
+			{ // the box didn't match before, so now it does
+				matchCount++;
+			}
+
+			// the clock stops while the level is complete
+			if (!isComplete()) endTime = -1;
+			else if (endTime < 0) endTime = System.nanoTime();
+		}
+
+		if (recorder != null) recorder.record(row, column, oldState, state);
+	}
+
+	/**
+	 * Returns the progress of the level's
+	 * completion as a percent
+	 *
+	 * @return the level's completion as a percent
+	 */
+	public int getProgress()
+	{
+		// return a percentage of the matching boxes / total
+		return (int) ((matchCount * 100L) / getBoxCount());
+	}
+
+	/**
+	 * Returns whether every box on the player's grid
+	 * matches the solution
+	 *
+	 * @return boolean
+	 */
+	public boolean isComplete()
+	{
+		return matchCount == getBoxCount();
+	}
+
+	/**
+	 * Get the time since the first move, up to when the level was
+	 * completed
+	 *
+	 * @return the time in seconds
+	 */
+	public int getElapsedSeconds()
+	{
+		if (startTime < 0) return 0; // no moves yet
+		long end = endTime < 0 ? System.nanoTime() : endTime;
+		return (int) ((end - startTime) / 1_000_000_000L);
+	}
+
+	/**
+	 * Get the elapsed time of the level
+	 *
+	 * @return the time as mm:ss
+	 */
+	public String getTime()
+	{
+		return formatTime(getElapsedSeconds());
+	}
+
+	/**
+	 * Writes a number of seconds as mm:ss
+	 *
+	 * @param time
+	 * @return the formatted time
+	 */
+	public static String formatTime(int time)
+	{
+		String minutes = time / 60 > 9 ? "" + time / 60 : "0" + time / 60;
+		String seconds = time % 60 > 9 ? "" + time % 60 : "0" + time % 60;
+		return minutes + ":" + seconds;
+	}
+
+	/**
+	 * Returns whether a row or column of the player's
+	 * grid has the runs its clue asks for
+	 *
+	 * @param index
+	 * @param vertical true for a column, false for a row
+	 * @return boolean
+	 */
+	public boolean isLineSolved(int index, boolean vertical)
+	{
+		return NonogramClues.matches(grid, index, vertical,
+				level.getClues().getRuns(index, vertical));
+	}
+
+	/**
+	 * Get the number of boxes that match the solution
+	 *
+	 * @return matchCount
+	 */
+	public int getMatchCount()
+	{
+		return matchCount;
+	}
+
+	/**
+	 * Get the level
+	 *
+	 * @return level
+	 */
+	public NonogramLevel getLevel()
+	{
+		return level;
+	}
+
+	/**
+	 * Get the player's board
+	 *
+	 * @return grid
+	 */
+	public NonogramBoard getGrid()
+	{
+		return grid;
+	}
+
+	/**
+	 * Get the history of moves
+	 *
+	 * @return history
+	 */
+	public MoveHistory getHistory()
+	{
+		return history;
+	}
+
+	/**
+	 * Get the recorder
+	 *
+	 * @return recorder, or null
+	 */
+	public SessionRecorder getRecorder()
+	{
+		return recorder;
+	}
+
+	/**
+	 * Set the recorder that every change to the board is written to
+	 *
+	 * @param recorder the recorder, or null to stop recording
+	 */
+	public void setRecorder(SessionRecorder recorder)
+	{
+		this.recorder = recorder;
+	}
+
+	/**
+	 * Get the number of boxes on the board
+	 *
+	 * @return the number of boxes
+	 */
+	private int getBoxCount()
+	{
+		return level.getWidth() * level.getHeight();
+	}
+}
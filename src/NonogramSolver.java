@@ -0,0 +1,356 @@
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Nonogram - Solution techniques
+ *         Retrieved from
+ *         https://en.wikipedia.org/wiki/Nonogram#Solution_techniques
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Solves a Nonogram from its row and column clues without any GUI.
+ *         Lines are solved one at a time from a queue of lines that changed;
+ *         when no line can be solved any further, the solver guesses a box
+ *         and tries both states (backtracking). It can also count solutions,
+ *         which tells us whether a level has exactly one.
+ */
+public class NonogramSolver
+{
+	private NonogramClues clues; // NonogramSolver has-a set of clues
+	private int rows, columns; // NonogramSolver has-a board size
+
+	// NonogramSolver has-a line solver and a line to work with
+	private NonogramLineSolver lineSolver = new NonogramLineSolver();
+	private byte[] line;
+
+	// the queue of lines that need to be solved again; rows are
+	// numbered first, then columns after them
+	private int[] queue;
+	private boolean[] queued;
+	private int queueHead, queueSize;
+
+	private NonogramBoard firstSolution; // the first solution found
+	private NonogramBoard secondSolution; // the second solution found
+	private int solutionCount; // how many solutions were found
+	private int solutionLimit; // stop once this many are found
+	private long branchCount; // how many guesses were made
+	private long branchLimit = Long.MAX_VALUE; // give up after this many
+	private boolean gaveUp; // the last solve hit the branch limit
+	private long lineCount; // how many lines were solved
+
+	/**
+	 * Constructor
+	 *
+	 * @param clues
+	 */
+	public NonogramSolver(NonogramClues clues)
+	{
+		this.clues = clues;
+		rows = clues.getRows();
+		columns = clues.getColumns();
+
+		line = new byte[Math.max(rows, columns)];
+		queue = new int[rows + columns];
+		queued = new boolean[rows + columns];
+	}
+
+	/**
+	 * Solves the puzzle
+	 *
+	 * @return the solution, or null if there is none
+	 */
+	public NonogramBoard solve()
+	{
+		countSolutions(1);
+		return firstSolution;
+	}
+
+	/**
+	 * Counts the solutions of the puzzle, stopping early once
+	 * the limit is reached; a limit of 2 is enough to tell
+	 * whether the solution is unique
+	 *
+	 * @param limit
+	 * @return the number of solutions, at most limit
+	 */
+	public int countSolutions(int limit)
+	{
+		firstSolution = null;
+		secondSolution = null;
+		solutionCount = 0;
+		solutionLimit = limit;
+		branchCount = 0;
+		gaveUp = false;
+		lineCount = 0;
+
+		NonogramBoard board = new NonogramBoard(rows, columns);
+		enqueueAll();
+
+		search(board);
+		return solutionCount;
+	}
+
+	/**
+	 * Get the first solution found by the last solve
+	 *
+	 * @return the solution, or null
+	 */
+	public NonogramBoard getSolution()
+	{
+		return firstSolution;
+	}
+
+	/**
+	 * Get the second solution found by the last solve, which
+	 * shows where an ambiguous puzzle can go two ways
+	 *
+	 * @return the solution, or null
+	 */
+	public NonogramBoard getSecondSolution()
+	{
+		return secondSolution;
+	}
+
+	/**
+	 * Get the number of guesses made by the last solve; a puzzle
+	 * that can be solved a line at a time needs none
+	 *
+	 * @return branchCount
+	 */
+	public long getBranchCount()
+	{
+		return branchCount;
+	}
+
+	/**
+	 * Get the number of lines solved by the last solve, counting
+	 * a line again every time it's solved; a puzzle that needs more
+	 * passes over its lines is harder to solve by hand
+	 *
+	 * @return lineCount
+	 */
+	public long getLineCount()
+	{
+		return lineCount;
+	}
+
+	/**
+	 * Sets the most guesses a solve can make before it gives up;
+	 * some puzzles with very few filled boxes take an exponential
+	 * number of guesses
+	 *
+	 * @param branchLimit
+	 */
+	public void setBranchLimit(long branchLimit)
+	{
+		this.branchLimit = branchLimit;
+	}
+
+	/**
+	 * Returns whether the last solve gave up at the branch limit,
+	 * in which case the solutions it counted may not be all of them
+	 *
+	 * @return gaveUp
+	 */
+	public boolean gaveUp()
+	{
+		return gaveUp;
+	}
+
+	/**
+	 * Solves as many lines as possible starting from the lines
+	 * already in the queue; boxes that are known to be empty are
+	 * crossed out on the board
+	 *
+	 * @param board
+	 * @return false if the board contradicts the clues
+	 */
+	public boolean propagate(NonogramBoard board)
+	{
+		while (queueSize > 0)
+		{
+			// take the next line off the queue
+			int next = queue[queueHead];
+			queueHead = (queueHead + 1) % queue.length;
+			queueSize--;
+			queued[next] = false;
+
+			boolean vertical = next >= rows;
+			int index = vertical ? next - rows : next;
+
+			int length = NonogramLineSolver.readLine(board, index, vertical,
+					line);
+			lineCount++;
+			if (!lineSolver.solve(line, length, clues.getRuns(index, vertical)))
+			{
+				clearQueue();
+				return false; // this line can't be solved, so neither can the board
+			}
+
+			// write back the boxes we learned, and queue the lines crossing them
+			for (int i = 0; i < length; i++)
+			{
+				int r = vertical ? i : index;
+				int c = vertical ? index : i;
+
+				if (line[i] != NonogramBoard.EMPTY
+						&& board.getState(r, c) == NonogramBoard.EMPTY)
+				{
+					board.setState(r, c, line[i]);
+					enqueue(vertical ? r : rows + c);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Empties the queue and then adds every row and column to it
+	 */
+	public void enqueueAll()
+	{
+		clearQueue();
+		for (int i = 0; i < rows + columns; i++) enqueue(i);
+	}
+
+	/**
+	 * Adds the row and column of a box to the queue of lines
+	 * to solve again
+	 *
+	 * @param row
+	 * @param column
+	 */
+	public void enqueueBox(int row, int column)
+	{
+		enqueue(row);
+		enqueue(rows + column);
+	}
+
+	/**
+	 * Finds an unknown box to guess, picking from the row with
+	 * the fewest unknown boxes, since guesses there are most
+	 * likely to lead somewhere quickly
+	 *
+	 * @param board
+	 * @return row * columns + column, or -1 if the board is full
+	 */
+	public static int findUnknownBox(NonogramBoard board)
+	{
+		int bestRow = -1, bestCount = Integer.MAX_VALUE;
+
+		for (int r = 0; r < board.getRows(); r++)
+		{
+			int count = 0;
+			for (int w = 0; w < board.getWordsPerRow(); w++)
+			{
+				count += Long.bitCount(unknownWord(board, r, w));
+			}
+			if (count > 0 && count < bestCount)
+			{
+				bestRow = r;
+				bestCount = count;
+			}
+		}
+		if (bestRow < 0) return -1; // every box is known
+
+		for (int w = 0; w < board.getWordsPerRow(); w++)
+		{
+			long unknown = unknownWord(board, bestRow, w);
+			if (unknown != 0)
+			{
+				int column = (w << 6) + Long.numberOfTrailingZeros(unknown);
+				return bestRow * board.getColumns() + column;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Keeps solving and guessing until every solution
+	 * is found or the limit is reached
+	 *
+	 * @param board
+	 */
+	private void search(NonogramBoard board)
+	{
+		if (!propagate(board)) return;
+
+		int box = findUnknownBox(board);
+		if (box < 0)
+		{ // every box is known, so this is a solution
+			if (solutionCount++ == 0) firstSolution = board;
+			else if (solutionCount == 2) secondSolution = board;
+			return;
+		}
+
+		if (branchCount >= branchLimit)
+		{ // stop guessing; the solve is taking too long
+			gaveUp = true;
+			clearQueue();
+			return;
+		}
+
+		int row = box / columns;
+		int column = box % columns;
+		branchCount++;
+
+		// try filling the box first, then crossing it out
+		NonogramBoard guess = new NonogramBoard(board);
+		guess.setState(row, column, NonogramBoard.FILLED);
+		enqueueBox(row, column);
+		search(guess);
+
+		if (solutionCount >= solutionLimit || gaveUp) return;
+
+		board.setState(row, column, NonogramBoard.CROSSED);
+		enqueueBox(row, column);
+		search(board);
+	}
+
+	/**
+	 * Get the boxes of a word that aren't filled or crossed
+	 *
+	 * @param board
+	 * @param row
+	 * @param word
+	 * @return the unknown bits
+	 */
+	private static long unknownWord(NonogramBoard board, int row, int word)
+	{
+		return ~(board.getFilledWord(row, word)
+				| board.getCrossedWord(row, word)) & board.getWordMask(word);
+	}
+
+	/**
+	 * Adds a line to the queue if it isn't there already
+	 *
+	 * @param lineNumber
+	 */
+	private void enqueue(int lineNumber)
+	{
+		if (queued[lineNumber]) return;
+		queued[lineNumber] = true;
+		queue[(queueHead + queueSize) % queue.length] = lineNumber;
+		queueSize++;
+	}
+
+	/**
+	 * Empties the queue of lines
+	 */
+	private void clearQueue()
+	{
+		while (queueSize > 0)
+		{
+			queued[queue[queueHead]] = false;
+			queueHead = (queueHead + 1) % queue.length;
+			queueSize--;
+		}
+		queueHead = 0;
+	}
+}
@@ -0,0 +1,239 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Guide to the Fork/Join Framework in Java
+ *         Retrieved from
+ *         https://www.baeldung.com/java-fork-join
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Solves a Nonogram like NonogramSolver does, but splits the guessing
+ *         (backtracking) across the threads of a ForkJoinPool. Each guess
+ *         becomes two tasks that idle threads can steal, and once enough
+ *         solutions have been found every remaining task is cancelled. Like
+ *         NonogramSolver, it can give up after a number of guesses, which
+ *         cancels every remaining task the same way. Running tasks check for
+ *         cancelling after solving their lines and before each branch, not
+ *         just when they start.
+ */
+public class ParallelNonogramSolver
+{
+	// only split a guess into separate tasks while the pool is
+	// running low on queued work; otherwise keep going in place
+	private static final int SURPLUS_TASKS = 3;
+
+	private NonogramClues clues; // ParallelNonogramSolver has-a set of clues
+	private ForkJoinPool pool; // ParallelNonogramSolver has-a thread pool
+
+	// every thread keeps its own solver for solving lines
+	private ThreadLocal<NonogramSolver> lineSolvers;
+
+	// these are shared between all the tasks of one solve
+	private AtomicInteger solutionCount = new AtomicInteger();
+	private AtomicReference<NonogramBoard> firstSolution = new AtomicReference<NonogramBoard>();
+	private volatile boolean cancelled;
+	private int solutionLimit;
+	private AtomicLong branchCount = new AtomicLong(); // how many guesses were made
+	private long branchLimit = Long.MAX_VALUE; // give up after this many
+	private volatile boolean gaveUp; // the last solve hit the branch limit
+
+	/**
+	 * Constructor
+	 *
+	 * @param clues
+	 * @param parallelism the number of threads to solve with
+	 */
+	public ParallelNonogramSolver(NonogramClues clues, int parallelism)
+	{
+		this(clues, new ForkJoinPool(parallelism));
+	}
+
+	/**
+	 * Constructor that shares an existing pool
+	 *
+	 * @param clues
+	 * @param pool
+	 */
+	public ParallelNonogramSolver(NonogramClues clues, ForkJoinPool pool)
+	{
+		this.clues = clues;
+		this.pool = pool;
+		lineSolvers = ThreadLocal.withInitial(() -> new NonogramSolver(clues));
+	}
+
+	/**
+	 * Solves the puzzle
+	 *
+	 * @return the solution, or null if there is none
+	 */
+	public NonogramBoard solve()
+	{
+		countSolutions(1);
+		return firstSolution.get();
+	}
+
+	/**
+	 * Counts the solutions of the puzzle, cancelling every remaining
+	 * branch once the limit is reached; a limit of 2 is enough to
+	 * tell whether the solution is unique
+	 *
+	 * @param limit
+	 * @return the number of solutions, at most limit
+	 */
+	public synchronized int countSolutions(int limit)
+	{
+		solutionCount.set(0);
+		firstSolution.set(null);
+		cancelled = false;
+		solutionLimit = limit;
+		branchCount.set(0);
+		gaveUp = false;
+
+		pool.invoke(new BranchTask(
+				new NonogramBoard(clues.getRows(), clues.getColumns()), -1, -1));
+
+		return Math.min(solutionCount.get(), limit);
+	}
+
+	/**
+	 * Get the first solution found by the last solve
+	 *
+	 * @return the solution, or null
+	 */
+	public NonogramBoard getSolution()
+	{
+		return firstSolution.get();
+	}
+
+	/**
+	 * Get the number of guesses made by the last solve
+	 *
+	 * @return the number of guesses
+	 */
+	public long getBranchCount()
+	{
+		return branchCount.get();
+	}
+
+	/**
+	 * Sets the most guesses a solve can make, across all its
+	 * threads, before it gives up
+	 *
+	 * @param branchLimit
+	 */
+	public void setBranchLimit(long branchLimit)
+	{
+		this.branchLimit = branchLimit;
+	}
+
+	/**
+	 * Returns whether the last solve gave up at the branch limit,
+	 * in which case the solutions it counted may not be all of them
+	 *
+	 * @return gaveUp
+	 */
+	public boolean gaveUp()
+	{
+		return gaveUp;
+	}
+
+	/**
+	 * Stops the pool's threads once the solver is no longer needed
+	 */
+	public void shutdown()
+	{
+		pool.shutdown();
+	}
+
+	/**
+	 * A task that solves the board after guessing one box (or
+	 * with no guess at all for the first task)
+	 */
+	private class BranchTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private NonogramBoard board; // BranchTask has-a board to solve
+		private int row, column; // BranchTask has-a guessed box
+
+		/**
+		 * Constructor
+		 *
+		 * @param board
+		 * @param row the guessed row, or -1 for the first task
+		 * @param column
+		 */
+		BranchTask(NonogramBoard board, int row, int column)
+		{
+			this.board = board;
+			this.row = row;
+			this.column = column;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (cancelled) return; // another branch already finished the job
+
+			// only the lines through the guessed box need solving again
+			NonogramSolver solver = lineSolvers.get();
+			if (row < 0) solver.enqueueAll();
+			else solver.enqueueBox(row, column);
+
+			if (!solver.propagate(board)) return;
+			if (cancelled) return; // it finished while the lines were solved
+
+			int box = NonogramSolver.findUnknownBox(board);
+			if (box < 0)
+			{ // every box is known, so this is a solution
+				int count = solutionCount.incrementAndGet();
+				if (count == 1) firstSolution.set(board);
+				if (count >= solutionLimit) cancelled = true;
+				return;
+			}
+
+			if (branchCount.incrementAndGet() > branchLimit)
+			{ // stop guessing everywhere; the solve is taking too long
+				gaveUp = true;
+				cancelled = true;
+				return;
+			}
+
+			int guessRow = box / board.getColumns();
+			int guessColumn = box % board.getColumns();
+
+			// one branch fills the box, the other crosses it out
+			NonogramBoard filled = new NonogramBoard(board);
+			filled.setState(guessRow, guessColumn, NonogramBoard.FILLED);
+			board.setState(guessRow, guessColumn, NonogramBoard.CROSSED);
+
+			BranchTask fillTask = new BranchTask(filled, guessRow, guessColumn);
+			BranchTask crossTask = new BranchTask(board, guessRow, guessColumn);
+
+			if (getSurplusQueuedTaskCount() < SURPLUS_TASKS)
+			{ // let another thread steal the filled branch
+				fillTask.fork();
+				if (!cancelled) crossTask.compute();
+				fillTask.join();
+			}
+			else
+			{ // there's plenty of work queued, so stay on this thread
+				fillTask.compute();
+				if (!cancelled) crossTask.compute();
+			}
+		}
+	}
+}
@@ -0,0 +1,325 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Nonogram - Nonograms in computing
+ *         Retrieved from
+ *         https://en.wikipedia.org/wiki/Nonogram#Nonograms_in_computing
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         A command line tool (no GUI) that makes random levels. Each level
+ *         starts as a random board with the chosen share of filled boxes, and
+ *         is then changed one box at a time until its puzzle has exactly one
+ *         solution and its difficulty is close to the target (or, if that can't
+ *         be done after a number of tries, as close as it got). The difficulty
+ *         is how many times the solver had to solve a line, divided by the
+ *         number of lines, so a level that needs more passes over its rows
+ *         and columns (or any guessing) is harder. Level number i only
+ *         depends on the seed and i, so the same seed always makes the same
+ *         levels, no matter how many threads make them. The levels are
+ *         written to a level pack, which LevelPack loads without any images,
+ *         along with level data lines for them.
+ *
+ *         Usage: java PuzzleGenerator [count] [size] [density] [difficulty]
+ *         [seed] [pack file]
+ */
+public class PuzzleGenerator
+{
+	// the most guesses a solve can make before the board is thrown out;
+	// random boards with few filled boxes can take exponential time
+	private static final long BRANCH_LIMIT = 16;
+
+	// how many boxes to try changing before starting over
+	private static final int TUNE_STEPS = 400;
+
+	// how many times to start over before settling for the closest
+	// board with exactly one solution
+	private static final int MAX_RESTARTS = 50;
+
+	// how close to the target difficulty a level has to be
+	private static final double TOLERANCE = 0.25;
+
+	// the cost of a puzzle with two solutions, before adding
+	// the number of boxes where they differ
+	private static final double AMBIGUOUS_COST = 1e6;
+
+	private int rows, columns; // PuzzleGenerator has-a board size
+	private double density; // the chance that a box starts filled
+	private double difficulty; // the target difficulty
+	private long seed; // PuzzleGenerator has-a seed
+
+	/**
+	 * Constructor
+	 *
+	 * @param rows
+	 * @param columns
+	 * @param density the chance that a box starts filled
+	 * @param difficulty the target difficulty; 1 is a level that can
+	 *            be solved in one pass over its lines
+	 * @param seed
+	 */
+	public PuzzleGenerator(int rows, int columns, double density,
+			double difficulty, long seed)
+	{
+		if (difficulty < 1)
+		{ // every line has to be solved at least once
+			throw new IllegalArgumentException(
+					"difficulty must be at least 1: " + difficulty);
+		}
+		this.rows = rows;
+		this.columns = columns;
+		this.density = density;
+		this.difficulty = difficulty;
+		this.seed = seed;
+	}
+
+	/**
+	 * Makes one level; the same index always makes the same level
+	 *
+	 * @param index
+	 * @return the level
+	 * @throws IllegalStateException if no board with exactly one
+	 *             solution was found
+	 */
+	public NonogramLevel generateLevel(int index)
+	{
+		Random random = new Random(seed ^ index * 0x9E3779B97F4A7C15L);
+		// the boxes where two solutions differ, for the board and
+		// for the last flip that was tried
+		int[] ambiguous = new int[rows * columns + 1];
+		int[] tried = new int[rows * columns + 1];
+
+		// the closest board with exactly one solution so far
+		NonogramBoard closest = null;
+		double closestCost = AMBIGUOUS_COST;
+
+		for (int restart = 0; restart < MAX_RESTARTS; restart++)
+		{
+			// start from a random board
+			NonogramBoard board = new NonogramBoard(rows, columns);
+			for (int row = 0; row < rows; row++)
+			{
+				for (int column = 0; column < columns; column++)
+				{
+					if (random.nextDouble() < density)
+					{
+						board.setState(row, column, NonogramBoard.FILLED);
+					}
+				}
+			}
+			double cost = getCost(board, ambiguous);
+
+			for (int step = 0; step < TUNE_STEPS; step++)
+			{
+				if (cost <= TOLERANCE)
+				{ // unique, and close enough to the target
+					return new NonogramLevel(getLevelName(index), index, board,
+							new NonogramClues(board));
+				}
+				if (cost < closestCost)
+				{
+					closest = new NonogramBoard(board);
+					closestCost = cost;
+				}
+
+				// flip a box, and keep the change if the board didn't
+				// get any further from what we want; if the puzzle has
+				// two solutions, flip one of the boxes where they differ
+				int box = cost >= AMBIGUOUS_COST && ambiguous[0] > 0
+						? ambiguous[1 + random.nextInt(ambiguous[0])]
+						: random.nextInt(rows * columns);
+				int row = box / columns;
+				int column = box % columns;
+				int oldState = board.getState(row, column);
+				board.setState(row, column, oldState == NonogramBoard.FILLED
+						? NonogramBoard.EMPTY : NonogramBoard.FILLED);
+
+				double newCost = getCost(board, tried);
+				if (newCost <= cost)
+				{
+					cost = newCost;
+					int[] swap = ambiguous;
+					ambiguous = tried;
+					tried = swap;
+				}
+				else board.setState(row, column, oldState); // put it back
+			}
+		}
+
+		if (closest == null)
+		{
+			throw new IllegalStateException("Couldn't make a " + columns + "x"
+					+ rows + " level with exactly one solution in "
+					+ MAX_RESTARTS + " tries; try a different density");
+		}
+		return new NonogramLevel(getLevelName(index), index, closest,
+				new NonogramClues(closest));
+	}
+
+	/**
+	 * Makes a number of levels in parallel, one worker per core
+	 *
+	 * @param count
+	 * @return the levels, in order
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	public List<NonogramLevel> generate(int count)
+			throws InterruptedException, ExecutionException
+	{
+		ExecutorService pool = Executors.newFixedThreadPool(
+				Runtime.getRuntime().availableProcessors());
+		try
+		{
+			List<Future<NonogramLevel>> futures = new ArrayList<Future<NonogramLevel>>();
+			for (int i = 0; i < count; i++)
+			{
+				int index = i;
+				futures.add(pool.submit(() -> generateLevel(index)));
+			}
+
+			List<NonogramLevel> levels = new ArrayList<NonogramLevel>();
+			for (Future<NonogramLevel> future : futures) levels.add(future.get());
+			return levels;
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Get the name of a level
+	 *
+	 * @param index
+	 * @return the name
+	 */
+	public String getLevelName(int index)
+	{
+		return "random-" + columns + "x" + rows + "-" + seed + "-" + index;
+	}
+
+	/**
+	 * Get the difficulty of the last puzzle a solver solved
+	 *
+	 * @param solver
+	 * @param board
+	 * @return the difficulty
+	 */
+	private static double getDifficulty(NonogramSolver solver,
+			NonogramBoard board)
+	{
+		return (double) solver.getLineCount()
+				/ (board.getRows() + board.getColumns());
+	}
+
+	/**
+	 * Get how far a board is from what we want
+	 *
+	 * @param board
+	 * @param ambiguous filled in with the number of boxes where two
+	 *            solutions differ, followed by those boxes
+	 * @return the distance from the target difficulty, or
+	 *         AMBIGUOUS_COST plus the number of boxes that differ
+	 *         if the puzzle isn't unique
+	 */
+	private double getCost(NonogramBoard board, int[] ambiguous)
+	{
+		NonogramSolver solver = new NonogramSolver(new NonogramClues(board));
+		solver.setBranchLimit(BRANCH_LIMIT);
+		int solutions = solver.countSolutions(2);
+		ambiguous[0] = 0;
+
+		if (solutions == 1 && !solver.gaveUp())
+		{
+			return Math.abs(getDifficulty(solver, board) - difficulty);
+		}
+		if (solutions < 2) return Double.MAX_VALUE; // gave up
+
+		// list the boxes where the two solutions differ
+		NonogramBoard first = solver.getSolution();
+		NonogramBoard second = solver.getSecondSolution();
+		for (int row = 0; row < rows; row++)
+		{
+			for (int word = 0; word < first.getWordsPerRow(); word++)
+			{
+				long differ = first.getFilledWord(row, word)
+						^ second.getFilledWord(row, word);
+				for (; differ != 0; differ &= differ - 1)
+				{
+					int column = word * 64 + Long.numberOfTrailingZeros(differ);
+					ambiguous[++ambiguous[0]] = row * columns + column;
+				}
+			}
+		}
+		return AMBIGUOUS_COST + ambiguous[0];
+	}
+
+	public static void main(String[] args)
+			throws IOException, InterruptedException
+	{
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int size = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		double density = args.length > 2 ? Double.parseDouble(args[2]) : 0.6;
+		double difficulty = args.length > 3 ? Double.parseDouble(args[3]) : 3;
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+		String packFile = args.length > 5 ? args[5] : "generated.pack";
+
+		long start = System.nanoTime();
+		List<NonogramLevel> levels;
+		try
+		{
+			PuzzleGenerator generator = new PuzzleGenerator(size, size,
+					density, difficulty, seed);
+			levels = generator.generate(count);
+		}
+		catch (IllegalArgumentException e)
+		{
+			System.out.println(e.getMessage());
+			System.exit(1);
+			return;
+		}
+		catch (ExecutionException e)
+		{ // a level couldn't be made
+			System.out.println(e.getCause().getMessage());
+			System.exit(1);
+			return;
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		// write the pack, and the level data lines that list its levels
+		LevelPackCompiler compiler = new LevelPackCompiler();
+		String dataFile = packFile.replaceFirst("\\.pack$", "") + "_data.txt";
+		try (PrintWriter data = new PrintWriter(new FileWriter(dataFile)))
+		{
+			for (NonogramLevel level : levels)
+			{
+				compiler.addLevel(level);
+				data.println(level.getName() + " - incomplete - --:--");
+			}
+		}
+		compiler.write(packFile);
+
+		System.out.printf("Made %d %dx%d levels in %.1f s (%.0f per minute)%n",
+				count, size, size, seconds, count / seconds * 60);
+		System.out.printf("Wrote %s and %s%n", packFile, dataFile);
+	}
+}
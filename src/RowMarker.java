@@ -19,20 +19,21 @@ import javax.swing.JLabel;
  *         Version/date: 5-20-24
  * 
  *         Responsibilities of class:
- *         A RowMarker is a modified JLabel that reads from a 2D array of
- *         booleans (which represent's the Nonogram game board) and
- *         determines the list of numbers that should be listed next to 
- *         each column and row. It also will change its background color
+ *         A RowMarker is a modified JLabel that displays the list of numbers
+ *         (the runs of filled boxes) that should be listed next to
+ *         each column and row, and checks the player's NonogramBoard
+ *         against them. It also will change its background color
  *         to indicate that it's associated row is fulfilled by the player.
  */
 public class RowMarker extends JLabel
 {
 	private String numList; // RowMarker has-a number list
+	private int[] runs; // RowMarker has-a list of runs
 	private int index; // RowMarker has-an index
 	private Color bgColor; // RowMarker has-a background color
 	private boolean isVertical; // RowMarker knows if it's horizontal or vertical
 
-	public RowMarker(boolean[][] solution, int index, boolean vertical)
+	public RowMarker(int[] runs, int index, boolean vertical)
 	{
 		// set the color to alternating colors based on the index
 		bgColor = ((index + 1) % 2 == 0) ? NonogramGame.markerColor1
@@ -42,10 +43,26 @@ public class RowMarker extends JLabel
 		isVertical = vertical;
 
 		// setting up the list of numbers the marker should display
-		numList = getRowNumbers(solution);
+		setRuns(runs);
+
+		this.setFont(new Font("Arial", Font.BOLD, 16));
+		this.setOpaque(true);
+		this.setBackground(bgColor);
+	}
+
+	/**
+	 * Changes the marker's list of runs and the text it displays,
+	 * so that the marker can be reused for another level
+	 * 
+	 * @param runs
+	 */
+	public void setRuns(int[] runs)
+	{
+		this.runs = runs;
+		numList = getRowNumbers();
 
 		// set the label's text to the number list
-		if (!vertical)
+		if (!isVertical)
 		{ // if horizontal, use the normal list
 			this.setText(numList+" ");
 		}
@@ -53,13 +70,9 @@ public class RowMarker extends JLabel
 		{ // otherwise, we'll replace the spaces with line breaks
 			// so that the numbers will line up vertically for column markers
 			this.setText(
-					"<html>" + getRowNumbers(solution).replaceAll(" ", "<br>")
+					"<html>" + numList.replaceAll(" ", "<br>")
 							+ "</html>");
 		}
-
-		this.setFont(new Font("Arial", Font.BOLD, 16));
-		this.setOpaque(true);
-		this.setBackground(bgColor);
 	}
 
 	/**
@@ -67,55 +80,28 @@ public class RowMarker extends JLabel
 	 * many boxes should be filled in the marker's
 	 * row/column
 	 * 
-	 * @param solution
 	 * @return
 	 */
-	public String getRowNumbers(boolean[][] solution)
+	public String getRowNumbers()
 	{
-		String list = ""; // this is where we add the numbers
-		int boxCounter = 0; // this will count the consecutive filled boxes
+		StringBuilder list = new StringBuilder(); // this is where we add the numbers
 
-		if (!isVertical)
-		{ // if not vertical (horizontal), traverse the row of the marker
-			for (int i = 0; i < solution[index].length; i++)
-			{
-				if (solution[index][i] == true)
-				{ // if the spot is filled, add to the counter
-					boxCounter++;
-				}
-				else
-				{ // if the spot is empty
-					if (boxCounter > 0)
-					{ // when the counter > 0, add it to the list and reset it
-						list += String.valueOf(boxCounter) + " ";
-						boxCounter = 0;
-					}
-				}
-			}
-		}
-		else
-		{ // if vertical, traverse the column of the marker
-			for (int i = 0; i < solution.length; i++)
-			{
-				if (solution[i][index] == true)
-				{// if the spot is filled, add to the counter
-					boxCounter++;
-				}
-				else
-				{// if the spot is empty
-					if (boxCounter > 0)
-					{// when the counter > 0, add it to the list and reset it
-						list += String.valueOf(boxCounter) + " ";
-						boxCounter = 0;
-					}
-				}
-			}
+		for (int i = 0; i < runs.length; i++)
+		{ // separate each run from the last one with a space
+			if (i > 0) list.append(' ');
+			list.append(runs[i]);
 		}
-		// by the end, if counter is still over 0, add it to the list
-		if (boxCounter > 0) list += String.valueOf(boxCounter);
+		return list.toString();
+	}
 
-		// remove any extra leading/trailing spaces and return
-		return list.trim();
+	/**
+	 * Get the marker's list of runs
+	 * 
+	 * @return runs
+	 */
+	public int[] getRuns()
+	{
+		return runs;
 	}
 
 	/**
@@ -128,6 +114,16 @@ public class RowMarker extends JLabel
 		return index;
 	}
 
+	/**
+	 * Returns whether the marker is for a column
+	 * 
+	 * @return isVertical
+	 */
+	public boolean isVertical()
+	{
+		return isVertical;
+	}
+
 	/**
 	 * Get the background color
 	 * 
@@ -146,9 +142,9 @@ public class RowMarker extends JLabel
 	 * @param grid
 	 * @return boolean
 	 */
-	public boolean checkRow(boolean[][] grid)
+	public boolean checkRow(NonogramBoard grid)
 	{
-		// if the row numbers match, return true
-		return getRowNumbers(grid).equals(numList);
+		// if the runs in the grid match, return true
+		return NonogramClues.matches(grid, index, isVertical, runs);
 	}
 }
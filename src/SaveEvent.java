@@ -0,0 +1,42 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Java Flight Recorder custom events
+ *         Retrieved from
+ *         https://docs.oracle.com/en/java/javase/17/docs/api/jdk.jfr/jdk/jfr/Event.html
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         A Java Flight Recorder (JFR) event for saving level data: either
+ *         queuing a level's status in saveDataToFile, or the background
+ *         write of the level data file.
+ */
+@Name("nonogram.Save")
+@Label("Save")
+@Category("Nonogram")
+@Description("Level data was queued to be saved, or written to the file")
+@StackTrace(false)
+public class SaveEvent extends Event
+{
+	@Label("Level")
+	@Description("The level that was saved, or empty for a write of the whole file")
+	public String level;
+
+	@Label("Phase")
+	@Description("queue or write")
+	public String phase;
+}
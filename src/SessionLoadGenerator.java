@@ -0,0 +1,168 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         A command line tool (no GUI) that opens many connections to a
+ *         SessionServer on this machine at once, makes random moves on each
+ *         of them, and reports the moves per second across every connection
+ *         and how long each move took to be answered. If no port is given,
+ *         it starts a server of its own.
+ *
+ *         Usage: java SessionLoadGenerator [connections] [moves each]
+ *         [level name] [port]
+ */
+public class SessionLoadGenerator
+{
+	public static void main(String[] args) throws Exception
+	{
+		// nothing here needs a display
+		System.setProperty("java.awt.headless", "true");
+
+		int connections = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int movesEach = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		String levelName = args.length > 2 ? args[2] : "spiral";
+
+		SessionServer server = null;
+		int port;
+		if (args.length > 3) port = Integer.parseInt(args[3]);
+		else
+		{ // start a server on any free port
+			server = new SessionServer(0,
+					SessionServer.readLevelNames("level_data.txt"),
+					SessionServer.openLevelPack());
+			server.start();
+			port = server.getPort();
+		}
+
+		// each connection keeps the time of each of its moves, in ns
+		long[] latencies = new long[connections * movesEach];
+
+		ExecutorService executor = SessionServer.newThreadPerTaskExecutor();
+		List<Callable<Void>> clients = new ArrayList<Callable<Void>>();
+		for (int i = 0; i < connections; i++)
+		{
+			int offset = i * movesEach;
+			clients.add(() -> {
+				play(port, levelName, movesEach, latencies, offset);
+				return null;
+			});
+		}
+
+		long start = System.nanoTime();
+		int failures = 0;
+		for (Future<Void> client : executor.invokeAll(clients))
+		{
+			try
+			{
+				client.get();
+			}
+			catch (Exception e)
+			{
+				if (failures++ == 0) e.printStackTrace(); // only show the first
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		executor.shutdown();
+		if (server != null) server.close();
+
+		long total = (long) (connections - failures) * movesEach;
+		System.out.printf("%d connections x %d moves on %s: %d moves in "
+				+ "%.1f ms, %.0f moves/s, %d failed%n", connections, movesEach,
+				levelName, total, elapsed / 1e6, total * 1e9 / elapsed,
+				failures);
+
+		// failed connections leave zeros behind, so skip those
+		Arrays.sort(latencies);
+		int first = latencies.length - (int) total;
+		System.out.printf("Move latency: p50 %.1f us, p99 %.1f us, "
+				+ "p99.9 %.1f us, max %.1f us%n",
+				percentile(latencies, first, 0.50) / 1e3,
+				percentile(latencies, first, 0.99) / 1e3,
+				percentile(latencies, first, 0.999) / 1e3,
+				latencies[latencies.length - 1] / 1e3);
+	}
+
+	/**
+	 * Plays one session: connects, asks for the level and makes
+	 * random moves, timing each one
+	 *
+	 * @param port
+	 * @param levelName
+	 * @param moves the number of moves to make
+	 * @param latencies where the time of each move goes
+	 * @param offset where in latencies this session's times start
+	 * @throws IOException
+	 */
+	private static void play(int port, String levelName, int moves,
+			long[] latencies, int offset) throws IOException
+	{
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+				DataInputStream in = new DataInputStream(
+						new BufferedInputStream(socket.getInputStream()));
+				DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(socket.getOutputStream())))
+		{
+			socket.setTcpNoDelay(true);
+			out.writeUTF(levelName);
+			out.flush();
+			int width = in.readInt();
+			int height = in.readInt();
+			if (width < 0) throw new IOException("No such level: " + levelName);
+
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			for (int i = 0; i < moves; i++)
+			{
+				int move = MoveHistory.pack(random.nextInt(height),
+						random.nextInt(width), NonogramBoard.EMPTY,
+						random.nextInt(3));
+
+				long moveStart = System.nanoTime();
+				out.writeInt(move);
+				out.flush();
+				in.readInt(); // wait for the answer
+				latencies[offset + i] = System.nanoTime() - moveStart;
+			}
+
+			out.writeInt(MoveHistory.NO_MOVE); // tell the server we're done
+			out.flush();
+		}
+	}
+
+	/**
+	 * Get a percentile of a sorted range of numbers
+	 *
+	 * @param sorted
+	 * @param first the first number in the range
+	 * @param fraction
+	 * @return the number at that fraction of the range
+	 */
+	private static long percentile(long[] sorted, int first, double fraction)
+	{
+		int count = sorted.length - first;
+		if (count == 0) return 0;
+		return sorted[first + (int) Math.min(count - 1, (long) (fraction * count))];
+	}
+}
@@ -0,0 +1,156 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Variable-length quantity
+ *         Retrieved from
+ *         https://en.wikipedia.org/wiki/Variable-length_quantity
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         Writes every change a NonogramSession makes to its board to a
+ *         compact binary stream, so the session can be replayed later by
+ *         SessionReplayer.
+ *
+ *         Stream layout (all numbers are big-endian):
+ *         int magic, int version, the level name (as written by writeUTF),
+ *         int width, int height, long start time (ms since 1970),
+ *         then one record per change: the ms since the last change (or the
+ *         start) as a variable-length number, 7 bits a byte with the high
+ *         bit set on every byte but the last, and the change packed into
+ *         an int the same way MoveHistory packs a move.
+ */
+public class SessionRecorder
+{
+	// These identify a recording
+	public static final int MAGIC = 0x4E475243; // "NGRC"
+	public static final int VERSION = 1;
+
+	private DataOutputStream out; // SessionRecorder has-a stream to write to
+	private long lastTime; // the time of the last change, in ns
+	private int moveCount; // the number of changes written
+
+	/**
+	 * Constructor; writes the header of the recording
+	 *
+	 * @param stream where the recording goes
+	 * @param level the level being played
+	 * @throws IOException
+	 */
+	public SessionRecorder(OutputStream stream, NonogramLevel level)
+			throws IOException
+	{
+		out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeUTF(level.getName());
+		out.writeInt(level.getWidth());
+		out.writeInt(level.getHeight());
+		out.writeLong(System.currentTimeMillis());
+		lastTime = System.nanoTime();
+	}
+
+	/**
+	 * Writes one change to the board
+	 *
+	 * @param row
+	 * @param column
+	 * @param oldState
+	 * @param newState
+	 */
+	public synchronized void record(int row, int column, int oldState,
+			int newState)
+	{
+		if (out == null) return; // the recording was closed
+
+		long now = System.nanoTime();
+		long delay = (now - lastTime) / 1_000_000;
+		lastTime = now;
+
+		try
+		{
+			writeVarLong(delay);
+			out.writeInt(MoveHistory.pack(row, column, oldState, newState));
+			moveCount++;
+		}
+		catch (IOException e)
+		{ // stop recording rather than interrupt the game
+			e.printStackTrace();
+			close();
+		}
+	}
+
+	/**
+	 * Get the number of changes written
+	 *
+	 * @return moveCount
+	 */
+	public synchronized int getMoveCount()
+	{
+		return moveCount;
+	}
+
+	/**
+	 * Finishes the recording and closes the stream
+	 */
+	public synchronized void close()
+	{
+		if (out == null) return;
+		try
+		{
+			out.close();
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+		out = null;
+	}
+
+	/**
+	 * Writes a number that isn't negative in as few bytes as it needs
+	 *
+	 * @param value
+	 * @throws IOException
+	 */
+	private void writeVarLong(long value) throws IOException
+	{
+		while ((value & ~0x7FL) != 0)
+		{ // more bytes follow this one
+			out.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	/**
+	 * Reads a number written by writeVarLong
+	 *
+	 * @param in
+	 * @return the number
+	 * @throws IOException
+	 */
+	public static long readVarLong(DataInputStream in) throws IOException
+	{
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7)
+		{
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) return value;
+		}
+		throw new IOException("Bad number in recording");
+	}
+}
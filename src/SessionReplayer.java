@@ -0,0 +1,298 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         A command line tool (no GUI) that pushes a stream of moves through
+ *         a NonogramSession as fast as it can and reports how many moves a
+ *         second it managed and the state the board ended in. The moves come
+ *         either from a recording made by SessionRecorder or are made up at
+ *         random, and no Swing components are ever created, so it runs on a
+ *         machine without a display. The delays a recording keeps between
+ *         moves are skipped, since it measures how fast the moves can be
+ *         made, not how fast the player made them. A recording that was cut
+ *         off (such as by the game being killed) is replayed up to its last
+ *         whole move.
+ *
+ *         Usage: java SessionReplayer [recording file] [times to repeat]
+ *         or: java SessionReplayer --synthetic [level name] [moves] [seed]
+ */
+public class SessionReplayer
+{
+	private String levelName; // SessionReplayer has-a level name
+	private int width, height; // SessionReplayer knows the level's size
+
+	// SessionReplayer has-a list of moves, packed the way MoveHistory packs them
+	private int[] moves;
+	private boolean truncated; // the recording ends partway through a move
+
+	/**
+	 * Constructor
+	 *
+	 * @param levelName
+	 * @param width
+	 * @param height
+	 * @param moves
+	 */
+	public SessionReplayer(String levelName, int width, int height,
+			int[] moves)
+	{
+		this.levelName = levelName;
+		this.width = width;
+		this.height = height;
+		this.moves = moves;
+	}
+
+	/**
+	 * Reads a recording made by SessionRecorder
+	 *
+	 * @param fileName
+	 * @return a replayer for the recording
+	 * @throws IOException
+	 */
+	public static SessionReplayer read(String fileName) throws IOException
+	{
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(fileName))))
+		{
+			if (in.readInt() != SessionRecorder.MAGIC
+					|| in.readInt() != SessionRecorder.VERSION)
+			{
+				throw new IOException("Not a recording: " + fileName);
+			}
+			String name = in.readUTF();
+			int width = in.readInt();
+			int height = in.readInt();
+			in.readLong(); // when the session started
+
+			int[] moves = new int[1024];
+			int count = 0;
+			boolean truncated = false;
+			while (true)
+			{
+				// the file ending between moves means that was the last one
+				in.mark(1);
+				if (in.read() < 0) break;
+				in.reset();
+
+				if (count == moves.length) moves = Arrays.copyOf(moves, count * 2);
+				try
+				{ // the delay before each move isn't needed to replay it
+					SessionRecorder.readVarLong(in);
+					moves[count] = in.readInt();
+				}
+				catch (EOFException e)
+				{ // keep every move before the one that was cut off
+					truncated = true;
+					break;
+				}
+				count++;
+			}
+			SessionReplayer replayer = new SessionReplayer(name, width, height,
+					Arrays.copyOf(moves, count));
+			replayer.truncated = truncated;
+			return replayer;
+		}
+	}
+
+	/**
+	 * Makes up a stream of moves on a level: most of them set a box
+	 * to what the solution says it should be, and the rest set a box
+	 * to a random state
+	 *
+	 * @param level
+	 * @param count the number of moves
+	 * @param seed
+	 * @return a replayer for the moves
+	 */
+	public static SessionReplayer synthetic(NonogramLevel level, int count,
+			long seed)
+	{
+		Random random = new Random(seed);
+		NonogramBoard solution = level.getSolution();
+		int[] moves = new int[count];
+
+		for (int i = 0; i < count; i++)
+		{
+			int row = random.nextInt(level.getHeight());
+			int column = random.nextInt(level.getWidth());
+			int state;
+			if (random.nextInt(4) != 0)
+			{ // three in four moves are right
+				state = solution.isFilled(row, column) ? NonogramBoard.FILLED
+						: NonogramBoard.CROSSED;
+			}
+			else state = random.nextInt(3); // and the rest are random
+
+			// the old state isn't known yet; replaying only needs the new one
+			moves[i] = MoveHistory.pack(row, column, NonogramBoard.EMPTY, state);
+		}
+		return new SessionReplayer(level.getName(), level.getWidth(),
+				level.getHeight(), moves);
+	}
+
+	/**
+	 * Makes every move on a session, the same way a click does
+	 *
+	 * @param session
+	 */
+	public void replay(NonogramSession session)
+	{
+		for (int move : moves)
+		{
+			session.makeMove(MoveHistory.getRow(move),
+					MoveHistory.getColumn(move), MoveHistory.getNewState(move));
+		}
+	}
+
+	/**
+	 * Get the name of the level the moves are for
+	 *
+	 * @return levelName
+	 */
+	public String getLevelName()
+	{
+		return levelName;
+	}
+
+	/**
+	 * Returns whether the recording was cut off partway through
+	 * a move, which was left out
+	 *
+	 * @return truncated
+	 */
+	public boolean isTruncated()
+	{
+		return truncated;
+	}
+
+	/**
+	 * Get the number of moves
+	 *
+	 * @return the number of moves
+	 */
+	public int getMoveCount()
+	{
+		return moves.length;
+	}
+
+	/**
+	 * Loads a level by name, from the level pack if there is one
+	 *
+	 * @param name
+	 * @return the level
+	 * @throws IOException if there's no level with that name
+	 */
+	private static NonogramLevel loadLevel(String name) throws IOException
+	{
+		LevelPack pack = new File("levels.pack").isFile()
+				? new LevelPack("levels.pack")
+				: null;
+		if ((pack == null || !pack.hasLevel(name))
+				&& !new File("images/" + name + ".png").isFile())
+		{ // it may have been renamed or removed since the recording
+			throw new IOException("There's no level named " + name
+					+ " in levels.pack or images/");
+		}
+		return new LevelPrefetcher(pack).buildLevel(name, 0);
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		// nothing here needs a display
+		System.setProperty("java.awt.headless", "true");
+
+		SessionReplayer replayer;
+		NonogramLevel level;
+		int repeat = 1;
+		if (args.length == 0)
+		{
+			System.out.println("Usage: java SessionReplayer [recording file] "
+					+ "[times to repeat]");
+			System.out.println("   or: java SessionReplayer --synthetic "
+					+ "[level name] [moves] [seed]");
+			return;
+		}
+		try
+		{
+			if (args[0].equals("--synthetic"))
+			{
+				level = loadLevel(args.length > 1 ? args[1] : "spiral");
+				int count = args.length > 2 ? Integer.parseInt(args[2])
+						: 1_000_000;
+				long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+				replayer = synthetic(level, count, seed);
+			}
+			else
+			{
+				replayer = read(args[0]);
+				level = loadLevel(replayer.levelName);
+				if (args.length > 1) repeat = Integer.parseInt(args[1]);
+			}
+		}
+		catch (IOException e)
+		{
+			System.out.println(e.getMessage());
+			System.exit(1);
+			return;
+		}
+		if (replayer.isTruncated())
+		{
+			System.out.println("The recording was cut off; replaying the "
+					+ replayer.moves.length + " whole moves before that");
+		}
+
+		if (level.getWidth() != replayer.width
+				|| level.getHeight() != replayer.height)
+		{
+			System.out.println("The recording doesn't match the size of "
+					+ level.getName());
+			System.exit(1);
+		}
+
+		NonogramSession session = new NonogramSession(level, 1 << 16);
+		long start = System.nanoTime();
+		for (int i = 0; i < repeat; i++)
+		{ // every repeat starts from an empty board
+			session.reset();
+			replayer.replay(session);
+		}
+		long elapsed = System.nanoTime() - start;
+
+		long total = (long) replayer.moves.length * repeat;
+		System.out.printf("Replayed %d moves on %s (%dx%d) in %.1f ms: "
+				+ "%.0f moves/s%n", total, level.getName(), level.getWidth(),
+				level.getHeight(), elapsed / 1e6, total * 1e9 / elapsed);
+
+		// count the rows and columns that match their clues
+		int rowsSolved = 0, columnsSolved = 0;
+		for (int row = 0; row < level.getHeight(); row++)
+		{
+			if (session.isLineSolved(row, false)) rowsSolved++;
+		}
+		for (int column = 0; column < level.getWidth(); column++)
+		{
+			if (session.isLineSolved(column, true)) columnsSolved++;
+		}
+		System.out.printf("Final state: %d%% progress, %s, %d/%d rows and "
+				+ "%d/%d columns solved%n", session.getProgress(),
+				session.isComplete() ? "complete" : "incomplete", rowsSolved,
+				level.getHeight(), columnsSolved, level.getWidth());
+	}
+}
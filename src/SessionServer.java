@@ -0,0 +1,335 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Jaiden Smith
+ *
+ *         References:
+ *         Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented
+ *         Problem Solving.
+ *         Retrieved from
+ *         https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
+ *
+ *         JEP 444: Virtual Threads
+ *         Retrieved from
+ *         https://openjdk.org/jeps/444
+ *
+ *         Version/date: 10-18-26
+ *
+ *         Responsibilities of class:
+ *         A local server (no GUI) that hosts a NonogramSession for every
+ *         connection, so many players can be served from one program. Each
+ *         connection gets its own thread: a virtual thread on Java 21 and
+ *         later, and a plain thread before that. Levels are built once and
+ *         shared by every session playing them. The server only listens on
+ *         the loopback address.
+ *
+ *         Protocol (all numbers are big-endian):
+ *         the client sends a level name (as written by writeUTF), and the
+ *         server answers with int width and int height, or -1 and -1 if
+ *         there's no such level. Then the client sends one int per move,
+ *         packed the way MoveHistory packs a move (the old state is
+ *         ignored), and the server answers each one with an int holding
+ *         the progress percent in bits 0-7 and a 1 in bit 8 if the level
+ *         is complete. The client sends -1 to finish.
+ *
+ *         Usage: java SessionServer [port]
+ */
+public class SessionServer
+{
+	public static final int DEFAULT_PORT = 7345;
+
+	// the answer bit that means the level is complete
+	public static final int COMPLETE_BIT = 1 << 8;
+
+	// the most moves each session can undo; nothing undoes them
+	// over the network, so this is kept small
+	private static final int HISTORY_LIMIT = 64;
+
+	private ServerSocket serverSocket; // SessionServer has-a server socket
+	private ExecutorService executor; // SessionServer has-a thread per connection
+	private Thread acceptThread; // SessionServer has-a thread to accept connections
+
+	private Set<String> levelNames; // the levels that can be played
+	private LevelPrefetcher levelBuilder; // SessionServer builds levels with this
+
+	// SessionServer keeps each level it has built, so it's only built once
+	private ConcurrentHashMap<String, NonogramLevel> levels = new ConcurrentHashMap<String, NonogramLevel>();
+
+	// SessionServer counts the sessions that are open and the moves made
+	private AtomicInteger openSessions = new AtomicInteger();
+	private AtomicLong moveCount = new AtomicLong();
+
+	/**
+	 * Constructor; the server doesn't accept connections until it's started
+	 *
+	 * @param port the port to listen on, or 0 for any free port
+	 * @param levelNames the names of the levels that can be played
+	 * @param levelPack the level pack to load levels from, or null
+	 * @throws IOException
+	 */
+	public SessionServer(int port, List<String> levelNames, LevelPack levelPack)
+			throws IOException
+	{
+		this.levelNames = new HashSet<String>(levelNames);
+		levelBuilder = new LevelPrefetcher(levelPack);
+		serverSocket = new ServerSocket(port, 4096,
+				InetAddress.getLoopbackAddress());
+		executor = newThreadPerTaskExecutor();
+	}
+
+	/**
+	 * Starts accepting connections on a background thread
+	 */
+	public void start()
+	{
+		acceptThread = new Thread(this::acceptConnections, "session-server");
+		acceptThread.setDaemon(true);
+		acceptThread.start();
+	}
+
+	/**
+	 * Stops accepting connections; sessions that are open
+	 * end when their clients finish
+	 */
+	public void close()
+	{
+		try
+		{
+			serverSocket.close();
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+		executor.shutdown();
+	}
+
+	/**
+	 * Get the port the server listens on
+	 *
+	 * @return the port
+	 */
+	public int getPort()
+	{
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Get the number of sessions that are open
+	 *
+	 * @return the number of sessions
+	 */
+	public int getOpenSessions()
+	{
+		return openSessions.get();
+	}
+
+	/**
+	 * Get the number of moves made in every session so far
+	 *
+	 * @return the number of moves
+	 */
+	public long getMoveCount()
+	{
+		return moveCount.get();
+	}
+
+	/**
+	 * Makes an executor that runs each task on a new virtual thread,
+	 * if this version of Java has them, or a new daemon thread if not
+	 *
+	 * @return the executor
+	 */
+	public static ExecutorService newThreadPerTaskExecutor()
+	{
+		try
+		{ // look the method up so this still compiles before Java 21
+			return (ExecutorService) Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (ReflectiveOperationException e)
+		{ // no virtual threads, so use plain ones
+			return Executors.newCachedThreadPool(task -> {
+				Thread thread = new Thread(task, "session");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/**
+	 * Accepts connections until the server is closed,
+	 * starting a session for each one
+	 */
+	private void acceptConnections()
+	{
+		while (!serverSocket.isClosed())
+		{
+			try
+			{
+				Socket socket = serverSocket.accept();
+				executor.execute(() -> serve(socket));
+			}
+			catch (SocketException e)
+			{
+				return; // the server was closed
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Plays one session with a client until it finishes
+	 *
+	 * @param socket
+	 */
+	private void serve(Socket socket)
+	{
+		openSessions.incrementAndGet();
+		try (Socket client = socket;
+				DataInputStream in = new DataInputStream(
+						new BufferedInputStream(client.getInputStream()));
+				DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(client.getOutputStream())))
+		{
+			client.setTcpNoDelay(true); // each answer is sent right away
+
+			NonogramLevel level = getLevel(in.readUTF());
+			if (level == null)
+			{ // there's no level with that name
+				out.writeInt(-1);
+				out.writeInt(-1);
+				return;
+			}
+			out.writeInt(level.getWidth());
+			out.writeInt(level.getHeight());
+			out.flush();
+
+			NonogramSession session = new NonogramSession(level, HISTORY_LIMIT);
+			int move;
+			while ((move = in.readInt()) != MoveHistory.NO_MOVE)
+			{
+				int row = MoveHistory.getRow(move);
+				int column = MoveHistory.getColumn(move);
+				int state = MoveHistory.getNewState(move);
+				if (row >= level.getHeight() || column >= level.getWidth()
+						|| state > NonogramBoard.CROSSED)
+				{
+					throw new IOException("Bad move from client: " + move);
+				}
+
+				session.makeMove(row, column, state);
+				moveCount.incrementAndGet();
+
+				out.writeInt(session.getProgress()
+						| (session.isComplete() ? COMPLETE_BIT : 0));
+				out.flush();
+			}
+		}
+		catch (EOFException e)
+		{
+			// the client left without saying so
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+		finally
+		{
+			openSessions.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Gets a level by name, building it the first time it's asked for
+	 *
+	 * @param name
+	 * @return the level, or null if there's no such level
+	 */
+	private NonogramLevel getLevel(String name)
+	{
+		// only levels in the level data file can be asked for, so
+		// a client can't make the server read any other file
+		if (!levelNames.contains(name)) return null;
+		return levels.computeIfAbsent(name,
+				key -> levelBuilder.buildLevel(key, 0));
+	}
+
+	/**
+	 * Reads the names of the levels in a level data file
+	 *
+	 * @param fileName
+	 * @return the names
+	 * @throws IOException
+	 */
+	public static List<String> readLevelNames(String fileName)
+			throws IOException
+	{
+		ArrayList<String> names = new ArrayList<String>();
+		for (String line : Files.readAllLines(Paths.get(fileName)))
+		{ // format of each line is: name - completion - mm:ss
+			if (!line.isBlank()) names.add(line.split(" - ")[0]);
+		}
+		return names;
+	}
+
+	/**
+	 * Opens the level pack, if the levels have been compiled into one
+	 *
+	 * @return the level pack, or null
+	 * @throws IOException
+	 */
+	public static LevelPack openLevelPack() throws IOException
+	{
+		return new File("levels.pack").isFile() ? new LevelPack("levels.pack")
+				: null;
+	}
+
+	public static void main(String[] args) throws IOException,
+			InterruptedException
+	{
+		// nothing here needs a display
+		System.setProperty("java.awt.headless", "true");
+
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		SessionServer server = new SessionServer(port,
+				readLevelNames("level_data.txt"), openLevelPack());
+		server.start();
+		System.out.println("Serving sessions on port " + server.getPort());
+
+		// report what the server is doing every few seconds
+		long lastMoves = 0;
+		while (true)
+		{
+			Thread.sleep(5000);
+			long moves = server.getMoveCount();
+			System.out.printf("%d sessions open, %.0f moves/s%n",
+					server.getOpenSessions(), (moves - lastMoves) / 5.0);
+			lastMoves = moves;
+		}
+	}
+}